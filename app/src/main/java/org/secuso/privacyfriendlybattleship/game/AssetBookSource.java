@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * AssetBookSource.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * This class reads the opening books from the assets of the app, see OpeningBook.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class AssetBookSource implements OpeningBook.Source {
+
+    private final AssetManager assets;
+
+    public AssetBookSource(AssetManager assets) {
+        this.assets = assets;
+    }
+
+    /*
+     Maps the asset into memory. Compressed assets cannot be mapped, they are read instead.
+      */
+    @Override
+    public ByteBuffer open(String name) throws IOException {
+        try {
+            AssetFileDescriptor descriptor = this.assets.openFd(name);
+            FileInputStream in = descriptor.createInputStream();
+            try {
+                FileChannel channel = in.getChannel();
+                return channel.map(FileChannel.MapMode.READ_ONLY, descriptor.getStartOffset(), descriptor.getLength());
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            InputStream in = this.assets.open(name);
+            try {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] chunk = new byte[8192];
+                int read;
+                while ((read = in.read(chunk)) != -1) out.write(chunk, 0, read);
+                return ByteBuffer.wrap(out.toByteArray());
+            } finally {
+                in.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * GameResources.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import android.support.annotation.DrawableRes;
+import android.support.annotation.StringRes;
+
+import org.secuso.privacyfriendlybattleship.R;
+
+/**
+ * This class maps the game modes and cells of the engine to the resources of the app.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public final class GameResources {
+
+    private GameResources(){} // this class should not be initialized
+
+    @StringRes
+    public static int getStringResID(GameMode mode) {
+        switch (mode) {
+            case VS_PLAYER:
+                return R.string.mode_two_player;
+            case VS_AI_EASY:
+                return R.string.mode_vs_cpu_easy;
+            case VS_AI_HARD:
+                return R.string.mode_vs_cpu_hard;
+            case VS_AI_EXPERT:
+                return R.string.mode_vs_cpu_expert;
+            case VS_AI_MASTER:
+                return R.string.mode_vs_cpu_master;
+            default:
+                return R.string.mode_custom;
+        }
+    }
+
+    @DrawableRes
+    public static int getImageResID(GameMode mode) {
+        switch (mode) {
+            case VS_AI_EASY:
+                return R.drawable.ic_cpu_easy;
+            case VS_AI_HARD:
+            case VS_AI_EXPERT:
+            case VS_AI_MASTER:
+                return R.drawable.ic_cpu_hard;
+            default:
+                return R.drawable.ic_people_black_24px;
+        }
+    }
+
+    /**
+     * Returns the drawable of the part of the ship on the cell.
+     * @return ID of the drawable or 0 if the cell contains water
+     */
+    public static int getResourceId(GameCell cell) {
+        if (!cell.isShip()) {
+            return 0;
+        }
+
+        GameShip ship = cell.getGrid().getShipSet().findShipContainingCell(cell);
+        switch (ship.getOrientation()) {
+            case NORTH:
+                if (cell.equals( ship.getFirstCell() )){
+                    //return North-start
+                    return R.drawable.ship_front_up;
+                }
+                if (cell.equals( ship.getLastCell() )){
+                    //return North-end
+                    return R.drawable.ship_back_up;
+                }
+                return R.drawable.ship_middle_up;
+            case EAST:
+                if (cell.equals( ship.getFirstCell() )){
+                    //return East-start
+                    return R.drawable.ship_front_right;
+                }
+                if (cell.equals( ship.getLastCell() )){
+                    //return East-end
+                    return R.drawable.ship_back_right;
+                }
+                return R.drawable.ship_middle_right;
+            case SOUTH:
+                if (cell.equals( ship.getFirstCell() )){
+                    //return South-start
+                    return R.drawable.ship_front_down;
+                }
+                if (cell.equals( ship.getLastCell() )){
+                    //return South-end
+                    return R.drawable.ship_back_down;
+                }
+                return R.drawable.ship_middle_down;
+            case WEST:
+                if (cell.equals( ship.getFirstCell() )){
+                    //return West-start
+                    return R.drawable.ship_front_left;
+                }
+                if (cell.equals( ship.getLastCell() )){
+                    //return West-end
+                    return R.drawable.ship_back_left;
+                }
+                return R.drawable.ship_middle_left;
+        }
+        return R.drawable.ic_info_black_24dp;
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * ParcelableGame.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * This class passes a game between activities. The engine does not depend on Android, so the
+ * state of the game is written by GameController.writeState() and parceled as a byte array.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class ParcelableGame implements Parcelable {
+
+    private final GameController controller;
+
+    public ParcelableGame(GameController controller) {
+        this.controller = controller;
+    }
+
+    public GameController getController() {
+        return controller;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel out, int flags) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            this.controller.writeState(new DataOutputStream(bytes));
+        } catch (IOException e) {
+            // A ByteArrayOutputStream does not throw
+            throw new IllegalStateException(e);
+        }
+        out.writeByteArray(bytes.toByteArray());
+    }
+
+    public static final Parcelable.Creator<ParcelableGame> CREATOR = new Parcelable.Creator<ParcelableGame>() {
+        public ParcelableGame createFromParcel(Parcel in) {
+            return new ParcelableGame(in);
+        }
+
+        public ParcelableGame[] newArray(int size) {
+            return new ParcelableGame[size];
+        }
+    };
+
+    private ParcelableGame(Parcel in) {
+        DataInputStream bytes = new DataInputStream(new ByteArrayInputStream(in.createByteArray()));
+        try {
+            this.controller = new GameController(bytes);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("The parcel does not contain a valid game.", e);
+        }
+    }
+}
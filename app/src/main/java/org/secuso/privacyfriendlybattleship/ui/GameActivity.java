@@ -30,6 +30,7 @@ import android.content.res.Configuration;
 import android.graphics.Color;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.SystemClock;
 import android.support.v4.view.GravityCompat;
 import android.support.v4.widget.DrawerLayout;
 import android.util.Log;
@@ -46,14 +47,20 @@ import android.widget.TextView;
 
 import org.secuso.privacyfriendlybattleship.Constants;
 import org.secuso.privacyfriendlybattleship.R;
+import org.secuso.privacyfriendlybattleship.game.AIBudget;
+import org.secuso.privacyfriendlybattleship.game.AssetBookSource;
+import org.secuso.privacyfriendlybattleship.game.GameAI;
 import org.secuso.privacyfriendlybattleship.game.GameCell;
 import org.secuso.privacyfriendlybattleship.game.GameController;
 import org.secuso.privacyfriendlybattleship.game.GameGrid;
 import org.secuso.privacyfriendlybattleship.game.GameMode;
 import org.secuso.privacyfriendlybattleship.game.GameShip;
+import org.secuso.privacyfriendlybattleship.game.OpeningBook;
+import org.secuso.privacyfriendlybattleship.game.ParcelableGame;
 
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.Future;
 
 /**
  * This activity enables a user to play the game depending on the game mode and size of the game
@@ -65,7 +72,12 @@ import java.util.TimerTask;
 
 public class GameActivity extends BaseActivity {
 
+    // Minimal time in milliseconds before the move of the AI is shown
+    private static final long AI_MOVE_DELAY = 250;
+
     private Handler handler;
+    private Future<?> aiMove;       // Move of the AI which is currently computed, null if there is none
+    private boolean destroyed;      // True after onDestroy(), moves of the AI are not applied anymore
     private Timer timerUpdate;
 
     private TextView playerName;
@@ -102,13 +114,20 @@ public class GameActivity extends BaseActivity {
 
         // Get the parameters from the MainActivity or the PlaceShipActivity and initialize the game
         Intent intentIn = getIntent();
-        this.controller = intentIn.getParcelableExtra("controller");
+        this.controller = ((ParcelableGame) intentIn.getParcelableExtra("controller")).getController();
         this.gridSize = controller.getGridSize();
         this.gameMode = controller.getMode();
 
         // Set up the handler, which will be needed later in the code.
         this.handler = new Handler();
 
+        // Let the AI read its opening books from the assets and apply the strength chosen in the MainActivity
+        OpeningBook.init(new AssetBookSource(getAssets()));
+        if (this.gameMode.isVsAI()) {
+            int strength = mSharedPreferences.getInt(Constants.AI_STRENGTH, AIBudget.DEFAULT_STRENGTH);
+            this.controller.getOpponentAI().setBudget(AIBudget.forStrength(strength));
+        }
+
         // Create a GameActivityLayoutProvider in order to scale the grids appropriately
         layoutProvider = new GameActivityLayoutProvider(this, this.gridSize);
 
@@ -213,6 +232,10 @@ public class GameActivity extends BaseActivity {
                 onClickShowMainGridButton(null);
                 onClickFinishButton(null);
             }
+            else if(this.controller.getCurrentPlayer() && !this.controller.getOpponentAI().isAIWinner()){
+                // The activity has been recreated during the move of the AI, so restart it.
+                startAIMove();
+            }
             showHelpDialog();
         }
     }
@@ -277,7 +300,7 @@ public class GameActivity extends BaseActivity {
     @Override
     protected void onResume() {
         super.onResume();
-        if(this.hasStarted || this.gameMode == GameMode.VS_AI_EASY || this.gameMode == GameMode.VS_AI_HARD){
+        if(this.hasStarted || this.gameMode.isVsAI()){
             this.controller.startTimer();
             if(this.moveMade || this.isSwitchDialogDisplayed || this.isGameFinished ||
                     (this.controller.getMode() != GameMode.VS_PLAYER && this.controller.getOpponentAI().isAIWinner()) ){
@@ -292,16 +315,30 @@ public class GameActivity extends BaseActivity {
         this.controller.stopTimer();
     }
 
+    @Override
+    protected void onDestroy() {
+        // Stop the move of the AI, it is restarted when the activity is recreated. The worker may
+        // post its move after the callbacks have been removed, so the move checks this flag.
+        this.destroyed = true;
+        if(this.aiMove != null){
+            this.aiMove.cancel(true);
+            this.aiMove = null;
+        }
+        this.handler.removeCallbacksAndMessages(null);
+        super.onDestroy();
+    }
+
     /*
     this method saves the auxiliary variables of the GameActivity, such that the game can be
-    recreated correctly once the configuration has changed.
+    recreated correctly once the configuration has changed. A move of the AI in the background is
+    not waited for, the state before that move is saved and the move is restarted in onCreate().
      */
     @Override
     public void onSaveInstanceState(Bundle savedInstanceState) {
         if(this.isGameFinished && !this.isShowAllShipsButtonClicked){
             this.controller.switchPlayers();
         }
-        savedInstanceState.putParcelable("controller", this.controller);
+        savedInstanceState.putParcelable("controller", new ParcelableGame(this.controller));
         savedInstanceState.putBoolean("move made", this.moveMade);
         savedInstanceState.putBoolean("has started", this.hasStarted);
         savedInstanceState.putBoolean("game finished", this.isGameFinished);
@@ -374,8 +411,8 @@ public class GameActivity extends BaseActivity {
         int row = this.positionGridCell / this.gridSize;
         this.attackedCell = gridUnderAttack.getCell(column, row);
 
-        //Do not attack the same cell twice and do not click the fire button without clicking on a cell.
-        if(attackedCell.isHit() || this.prevCell == null || !isCellClicked){
+        //Do not attack the same cell twice and do not click the fire button without clicking on a cell or during the move of the AI.
+        if(attackedCell.isHit() || this.prevCell == null || !isCellClicked || this.aiMove != null){
             return;
         }
 
@@ -414,37 +451,11 @@ public class GameActivity extends BaseActivity {
     // Switch the player or make the move for the AI
     private void terminateFireButton(){
         // If the attacked cell does not contain a ship, then stop the timer and switch the player
-        if(this.gameMode == GameMode.VS_AI_EASY || this.gameMode == GameMode.VS_AI_HARD){
+        if(this.gameMode.isVsAI()){
 
             controller.switchPlayers();
             //make move for AI
-            controller.getOpponentAI().makeMove();
-            this.handler.postDelayed(new Runnable() {
-                @Override
-                public void run() {
-                    adapterMiniGrid.notifyDataSetChanged();
-                    if(controller.getOpponentAI().isAIWinner()){
-                        timerUpdate.cancel();
-
-                        /*
-                        Create a dialog. Therefore, instantiate a bundle which transfers the data from the
-                        current game to the dialog.
-                        */
-                        Bundle bundle = new Bundle();
-                        bundle.putString("Time", controller.timeToString(controller.getTime()));
-                        bundle.putString("Attempts", controller.attemptsToString(controller.getAttemptsPlayerOne()));
-
-                        // Instantiate the lose dialog and show it
-                        LoseDialog loseDialog = LoseDialog.newInstance(bundle);
-                        loseDialog.setCancelable(false);
-                        loseDialog.show(getFragmentManager(), LoseDialog.class.getSimpleName());
-                    }
-                    else {
-                        // Restart the timer for player one
-                        controller.startTimer();
-                    }
-                }
-            }, 250);
+            startAIMove();
             this.moveMade = false;
         }
         else{
@@ -464,6 +475,56 @@ public class GameActivity extends BaseActivity {
         }
     }
 
+    /*
+    Lets the AI choose its target on its worker thread. The move is applied on the UI thread not
+    before AI_MOVE_DELAY has passed since the start, such that the time needed by the AI is part
+    of the delay instead of being added to it.
+     */
+    private void startAIMove(){
+        gridViewBig.setEnabled(false);
+        final long startTime = SystemClock.uptimeMillis();
+        this.aiMove = controller.getOpponentAI().chooseTargetAsync(new GameAI.MoveCallback() {
+            @Override
+            public void onTargetChosen(final int cell) {
+                long delay = Math.max(0, AI_MOVE_DELAY - (SystemClock.uptimeMillis() - startTime));
+                handler.postDelayed(new Runnable() {
+                    @Override
+                    public void run() {
+                        if(!destroyed)
+                            finishAIMove(cell);
+                    }
+                }, delay);
+            }
+        });
+    }
+
+    private void finishAIMove(int cell){
+        this.aiMove = null;
+        controller.getOpponentAI().applyMove(cell);
+        gridViewBig.setEnabled(true);
+        adapterMiniGrid.notifyDataSetChanged();
+        if(controller.getOpponentAI().isAIWinner()){
+            timerUpdate.cancel();
+
+            /*
+            Create a dialog. Therefore, instantiate a bundle which transfers the data from the
+            current game to the dialog.
+            */
+            Bundle bundle = new Bundle();
+            bundle.putString("Time", controller.timeToString(controller.getTime()));
+            bundle.putString("Attempts", controller.attemptsToString(controller.getAttemptsPlayerOne()));
+
+            // Instantiate the lose dialog and show it
+            LoseDialog loseDialog = LoseDialog.newInstance(bundle);
+            loseDialog.setCancelable(false);
+            loseDialog.show(getFragmentManager(), LoseDialog.class.getSimpleName());
+        }
+        else {
+            // Restart the timer for player one
+            controller.startTimer();
+        }
+    }
+
     public void onClickFinishButton(View view){
         Button finishButton = (Button) findViewById(R.id.game_button_fire);
         finishButton.setText(R.string.finish);
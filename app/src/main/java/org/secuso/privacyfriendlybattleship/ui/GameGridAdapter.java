@@ -31,6 +31,7 @@ import android.widget.ImageView;
 import org.secuso.privacyfriendlybattleship.R;
 import org.secuso.privacyfriendlybattleship.game.GameCell;
 import org.secuso.privacyfriendlybattleship.game.GameController;
+import org.secuso.privacyfriendlybattleship.game.GameResources;
 
 /**
  * This class implements an adapter for the grid view in the GameActivity, which changes the color
@@ -136,7 +137,7 @@ public class GameGridAdapter extends BaseAdapter {
 
             // Set the grid cell of the current player
             if(currentCell.isShip() && !isMainGrid || currentCell.isShip() && showShips){
-                gridCell.setImageResource(currentCell.getResourceId());
+                gridCell.setImageResource(GameResources.getResourceId(currentCell));
             }
         } else{
             gridCell = (ImageView) view;
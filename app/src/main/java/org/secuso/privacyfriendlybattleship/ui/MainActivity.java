@@ -30,13 +30,17 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
+import android.widget.SeekBar;
 import android.widget.TextView;
 
 import org.secuso.privacyfriendlybattleship.Constants;
 import org.secuso.privacyfriendlybattleship.R;
+import org.secuso.privacyfriendlybattleship.game.AIBudget;
 import org.secuso.privacyfriendlybattleship.game.GameController;
 import org.secuso.privacyfriendlybattleship.game.GameGrid;
 import org.secuso.privacyfriendlybattleship.game.GameMode;
+import org.secuso.privacyfriendlybattleship.game.GameResources;
+import org.secuso.privacyfriendlybattleship.game.ParcelableGame;
 
 /**
  * This activity implements the main menu of the app. Here the player can
@@ -59,6 +63,7 @@ public class MainActivity extends BaseActivity {
         setContentView(R.layout.activity_main);
         setupViewPagerMode();
         setupViewPagerSize();
+        setupStrengthBar();
     }
 
     private boolean isFirstAppStart() {
@@ -90,8 +95,8 @@ public class MainActivity extends BaseActivity {
 
         @Override
         public int getCount() {
-            // Show 3 total pages.
-            return 3;
+            // Show one page per game mode.
+            return GameMode.getValidTypes().size();
         }
     }
 
@@ -143,11 +148,11 @@ public class MainActivity extends BaseActivity {
             // Generate the image for the gameMode
             GameMode gameMode = GameMode.getValidTypes().get(getArguments().getInt(ARG_SECTION_MODE_NUMBER));
             ImageView imageView = (ImageView) rootView.findViewById(R.id.gameModeImage);
-            imageView.setImageResource(gameMode.getImageResID());
+            imageView.setImageResource(GameResources.getImageResID(gameMode));
 
             // Generate the text for the gameMode
             TextView textView = (TextView) rootView.findViewById(R.id.section_label);
-            textView.setText(getString(gameMode.getStringResID()));
+            textView.setText(getString(GameResources.getStringResID(gameMode)));
 
             return rootView;
         }
@@ -207,7 +212,11 @@ public class MainActivity extends BaseActivity {
             @Override
             public void onPageSelected(int position) {
                 arrowLeft.setVisibility(position == 0 ? View.INVISIBLE : View.VISIBLE);
-                arrowRight.setVisibility(position == 2 ? View.INVISIBLE : View.VISIBLE);
+                arrowRight.setVisibility(position == sectionPagerModeAdapter.getCount() - 1 ? View.INVISIBLE : View.VISIBLE);
+
+                // Only the master AI has a compute budget
+                findViewById(R.id.strength_layout).setVisibility(
+                        GameMode.getValidTypes().get(position) == GameMode.VS_AI_MASTER ? View.VISIBLE : View.INVISIBLE);
             }
             @Override
             public void onPageScrollStateChanged(int state) {
@@ -216,6 +225,28 @@ public class MainActivity extends BaseActivity {
         });
     }
 
+    // Setup the SeekBar for the strength of the AI, which is stored in the preferences
+    public void setupStrengthBar(){
+        SeekBar strengthBar = (SeekBar) findViewById(R.id.strength_bar);
+        strengthBar.setMax(AIBudget.MAX_STRENGTH);
+        strengthBar.setProgress(mSharedPreferences.getInt(Constants.AI_STRENGTH, AIBudget.DEFAULT_STRENGTH));
+
+        strengthBar.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
+            @Override
+            public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+                // not used
+            }
+            @Override
+            public void onStartTrackingTouch(SeekBar seekBar) {
+                // not used
+            }
+            @Override
+            public void onStopTrackingTouch(SeekBar seekBar) {
+                mSharedPreferences.edit().putInt(Constants.AI_STRENGTH, seekBar.getProgress()).commit();
+            }
+        });
+    }
+
     // Setup the ViewPager for the Game size
     public void setupViewPagerSize(){
         final ImageView arrowLeft = (ImageView) findViewById(R.id.size_arrow_left);
@@ -276,11 +307,16 @@ public class MainActivity extends BaseActivity {
                 gridSize = GameGrid.getValidSizes().get(sizeIndex);
 
                 game = new GameController(gridSize, gameMode);
-                game.placeAllShips();//place all ships randomly for both players
+                //place all ships randomly for both players
+                if (!game.placeAllShips()) {
+                    new ShipSetActivity.PlacementFailedDialog().show(getFragmentManager(),
+                            ShipSetActivity.PlacementFailedDialog.class.getSimpleName());
+                    break;
+                }
 
                 // send game information to GameActivity
                 intent = new Intent(this, GameActivity.class);
-                intent.putExtra("controller", game);
+                intent.putExtra("controller", new ParcelableGame(game));
                 startActivity(intent);
                 break;
             case R.id.action_settings:
@@ -294,7 +330,7 @@ public class MainActivity extends BaseActivity {
 
                 // send game information to ShipSetActivity
                 intent = new Intent(this, ShipSetActivity.class);
-                intent.putExtra("controller", game);
+                intent.putExtra("controller", new ParcelableGame(game));
                 startActivity(intent);
                 break;
             default:
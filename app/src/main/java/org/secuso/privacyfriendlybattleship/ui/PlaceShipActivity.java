@@ -48,7 +48,10 @@ import org.secuso.privacyfriendlybattleship.game.Direction;
 import org.secuso.privacyfriendlybattleship.game.GameCell;
 import org.secuso.privacyfriendlybattleship.game.GameController;
 import org.secuso.privacyfriendlybattleship.game.GameMode;
+import org.secuso.privacyfriendlybattleship.game.GameResources;
 import org.secuso.privacyfriendlybattleship.game.GameShip;
+import org.secuso.privacyfriendlybattleship.game.GameShipSet;
+import org.secuso.privacyfriendlybattleship.game.ParcelableGame;
 
 /**
  * This class is used to implement the activity for the placement of
@@ -78,7 +81,7 @@ public class PlaceShipActivity extends BaseActivity {
 
         // Get the parameters from the MainActivity or the PlaceShipActivity and initialize the game
         Intent intentIn = getIntent();
-        this.controller = intentIn.getParcelableExtra("controller");
+        this.controller = ((ParcelableGame) intentIn.getParcelableExtra("controller")).getController();
         this.gridSize = controller.getGridSize();
         layoutProvider = new GameActivityLayoutProvider(this, this.gridSize);
 
@@ -189,11 +192,12 @@ public class PlaceShipActivity extends BaseActivity {
             int col = cell.getCol();
             int row = cell.getRow();
             ImageView cellView = (ImageView) this.gridView.getChildAt( row * this.gridSize + col );
-            cellView.setImageResource(cell.getResourceId());
+            cellView.setImageResource(GameResources.getResourceId(cell));
             cellView.setImageAlpha(128);
 
-            int shipsOnCell = this.controller.getCurrentGrid().getShipSet().shipsOnCell(cell);
-            if (shipsOnCell == 1){
+            GameShipSet shipSet = this.controller.getCurrentGrid().getShipSet();
+            int shipsOnCell = shipSet.shipsOnCell(cell);
+            if (shipsOnCell == 1 && !shipSet.touchesOtherShip(cell)){
                 cellView.setBackgroundColor(gridAdapter.context.getResources().getColor(R.color.yellow));
             } else {
                 cellView.setBackgroundColor(gridAdapter.context.getResources().getColor(R.color.red));
@@ -205,18 +209,19 @@ public class PlaceShipActivity extends BaseActivity {
         for( GameCell cell : cells ) {
             int col = cell.getCol();
             int row = cell.getRow();
-            int shipsOnCell = this.controller.getCurrentGrid().getShipSet().shipsOnCell(cell);
+            GameShipSet shipSet = this.controller.getCurrentGrid().getShipSet();
+            int shipsOnCell = shipSet.shipsOnCell(cell);
             ImageView cellView = (ImageView) this.gridView.getChildAt( row * this.gridSize + col );
             if (shipsOnCell == 0) {
                 cellView.setBackgroundColor(Color.WHITE);
                 cellView.setImageResource(0);
-            } else if (shipsOnCell == 1) {
+            } else if (shipsOnCell == 1 && !shipSet.touchesOtherShip(cell)) {
                 cellView.setBackgroundColor(Color.WHITE);
-                cellView.setImageResource(cell.getResourceId());
+                cellView.setImageResource(GameResources.getResourceId(cell));
                 cellView.setImageAlpha(255);
-            } else if (shipsOnCell >= 2) {
+            } else {
                 cellView.setBackgroundColor(gridAdapter.context.getResources().getColor(R.color.red));
-                cellView.setImageResource(cell.getResourceId());
+                cellView.setImageResource(GameResources.getResourceId(cell));
                 cellView.setImageAlpha(255);
             }
         }
@@ -257,12 +262,11 @@ public class PlaceShipActivity extends BaseActivity {
             return;
         }
 
-        if (    this.controller.getMode() == GameMode.VS_AI_EASY ||
-                this.controller.getMode() == GameMode.VS_AI_HARD) {
+        if (this.controller.getMode().isVsAI()) {
 
             //Call GameActivity and provide GameController
             Intent intent = new Intent(this, GameActivity.class);
-            intent.putExtra("controller", this.controller);
+            intent.putExtra("controller", new ParcelableGame(this.controller));
             startActivity(intent);
         } else if (this.controller.getMode() == GameMode.VS_PLAYER) {
             if (this.controller.getCurrentPlayer()) {
@@ -272,7 +276,7 @@ public class PlaceShipActivity extends BaseActivity {
                 this.controller.switchPlayers();
                 //Call GameActivity and provide GameController
                 Intent intent = new Intent(this, GameActivity.class);
-                intent.putExtra("controller", this.controller);
+                intent.putExtra("controller", new ParcelableGame(this.controller));
                 startActivity(intent);
 
                 // Finish the PlaceShipActivity
@@ -29,11 +29,15 @@ import android.os.Bundle;
 import android.view.View;
 import android.widget.TextView;
 
+import java.util.Arrays;
+
 import org.secuso.privacyfriendlybattleship.Constants;
 import org.secuso.privacyfriendlybattleship.R;
+import org.secuso.privacyfriendlybattleship.game.FleetFeasibility;
 import org.secuso.privacyfriendlybattleship.game.GameController;
 import org.secuso.privacyfriendlybattleship.game.GameMode;
 import org.secuso.privacyfriendlybattleship.game.GameShipSet;
+import org.secuso.privacyfriendlybattleship.game.ParcelableGame;
 
 /**
  * This activity is called from the MainActivity and allows a user to customize the number of
@@ -71,11 +75,11 @@ public class ShipSetActivity extends BaseActivity {
         parameters necessary for this activity.
          */
         this.intentIn = getIntent();
-        this.controller = intentIn.getParcelableExtra("controller");
+        this.controller = ((ParcelableGame) intentIn.getParcelableExtra("controller")).getController();
 
         // Check if a previous instance can be recreated after the configuration has changed.
         if(savedInstanceState != null){
-            this.controller = savedInstanceState.getParcelable("controller");
+            this.controller = ((ParcelableGame) savedInstanceState.getParcelable("controller")).getController();
         }
         this.gameMode = this.controller.getMode();
         this.shipSet = this.controller.getGridFirstPlayer().getShipSet();
@@ -95,18 +99,16 @@ public class ShipSetActivity extends BaseActivity {
         updateShipsofSize5();
 
         /*
-         Set the bounds for the ship sizes. A bound is determined by the number of grid cells
-         divided by two in order to avoid too many cells covered by ships. This result will again be
-         divided by the size of the respective ship in order to get the bound for the respective
-         ship size.
+         Set the bounds for the ship sizes. A bound is the number of ships of the respective size
+         that would cover every grid cell. Whether a ship-count actually fits on the grid is
+         checked by the controller.
           */
 
-        int bound = numberGridCells * 2 / 5;
-
-        this.boundShipSet2 = bound / 2;
-        this.boundShipSet3 = bound / 3;
-        this.boundShipSet4 = bound / 4;
-        this.boundShipSet5 = bound / 5;
+        this.boundShipSet2 = numberGridCells / 2;
+        this.boundShipSet3 = numberGridCells / 3;
+        this.boundShipSet4 = numberGridCells / 4;
+        this.boundShipSet5 = numberGridCells / 5;
+        prefetchShipCounts();
 
         // Show the tutorial dialog if first time in activity
         if (isFirstActivityStart()) {
@@ -127,46 +129,88 @@ public class ShipSetActivity extends BaseActivity {
         mSharedPreferences.edit().putBoolean(Constants.FIRST_SHIP_SET_START, false).commit();
     }
 
+    private void showPlacementFailedDialog() {
+        new PlacementFailedDialog().show(getFragmentManager(), PlacementFailedDialog.class.getSimpleName());
+    }
+
     public void addShipOfSize2(View view){
-        if(this.shipsSize2 <= boundShipSet2){
-            int[] temporaryShipCount = new int[]{shipsSize2 + 1, shipsSize3, shipsSize4, shipsSize5};
-            if(this.controller.isShipCountLegit(temporaryShipCount)){
-                this.shipsSize2 +=1;
-                this.newShipCount[0] = this.shipsSize2;
-                updateShipsofSize2();
-            }
+        if(this.shipsSize2 < boundShipSet2){
+            addShip(new int[]{shipsSize2 + 1, shipsSize3, shipsSize4, shipsSize5});
         }
     }
 
     public void addShipOfSize3(View view){
-        if(this.shipsSize3 <= boundShipSet3){
-            int[] temporaryShipCount = new int[]{shipsSize2, shipsSize3 + 1, shipsSize4, shipsSize5};
-            if(this.controller.isShipCountLegit(temporaryShipCount)){
-                this.shipsSize3 +=1;
-                this.newShipCount[1] = this.shipsSize3;
-                updateShipsofSize3();
-            }
+        if(this.shipsSize3 < boundShipSet3){
+            addShip(new int[]{shipsSize2, shipsSize3 + 1, shipsSize4, shipsSize5});
         }
     }
 
     public void addShipOfSize4(View view){
-        if(this.shipsSize4 <= boundShipSet4){
-            int[] temporaryShipCount = new int[]{shipsSize2, shipsSize3, shipsSize4 + 1, shipsSize5};
-            if(this.controller.isShipCountLegit(temporaryShipCount)){
-                this.shipsSize4 +=1;
-                this.newShipCount[2] = this.shipsSize4;
-                updateShipsofSize4();
-            }
+        if(this.shipsSize4 < boundShipSet4){
+            addShip(new int[]{shipsSize2, shipsSize3, shipsSize4 + 1, shipsSize5});
         }
     }
 
     public void addShipOfSize5(View view){
-        if(this.shipsSize5 <= boundShipSet5){
-            int[] temporaryShipCount = new int[]{shipsSize2, shipsSize3, shipsSize4, shipsSize5 + 1};
-            if(this.controller.isShipCountLegit(temporaryShipCount)){
-                this.shipsSize5 +=1;
-                this.newShipCount[3] = this.shipsSize5;
-                updateShipsofSize5();
+        if(this.shipsSize5 < boundShipSet5){
+            addShip(new int[]{shipsSize2, shipsSize3, shipsSize4, shipsSize5 + 1});
+        }
+    }
+
+    /*
+     Applies the given ship-count if the ships can be placed on the grid. Usually the result has
+     already been computed in the background by prefetchShipCounts(). Otherwise the check is
+     started in the background and the ship-count is applied once the result is known, unless the
+     user has changed the ship-count in the meantime.
+      */
+    private void addShip(final int[] temporaryShipCount){
+        Boolean legit = this.controller.getCachedShipCountLegit(temporaryShipCount);
+        if(legit != null){
+            if(legit){
+                applyShipCount(temporaryShipCount);
+            }
+            return;
+        }
+
+        final int[] currentShipCount = this.newShipCount.clone();
+        this.controller.checkShipCountLegitAsync(temporaryShipCount, new FleetFeasibility.Callback() {
+            @Override
+            public void onResult(int[] shipCount, final boolean feasible) {
+                runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        if(feasible && Arrays.equals(currentShipCount, newShipCount)){
+                            applyShipCount(temporaryShipCount);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private void applyShipCount(int[] shipCount){
+        this.shipsSize2 = shipCount[0];
+        this.shipsSize3 = shipCount[1];
+        this.shipsSize4 = shipCount[2];
+        this.shipsSize5 = shipCount[3];
+        this.newShipCount = shipCount.clone();
+        updateShipsofSize2();
+        updateShipsofSize3();
+        updateShipsofSize4();
+        updateShipsofSize5();
+        prefetchShipCounts();
+    }
+
+    /*
+     Checks in the background whether one more ship of each size can be placed, such that the
+     plus buttons can answer immediately.
+      */
+    private void prefetchShipCounts(){
+        for(int i = 0; i < this.newShipCount.length; i++){
+            int[] temporaryShipCount = this.newShipCount.clone();
+            temporaryShipCount[i] += 1;
+            if(this.controller.getCachedShipCountLegit(temporaryShipCount) == null){
+                this.controller.checkShipCountLegitAsync(temporaryShipCount, null);
             }
         }
     }
@@ -176,6 +220,7 @@ public class ShipSetActivity extends BaseActivity {
             this.shipsSize2 -= 1;
             this.newShipCount[0] = this.shipsSize2;
             updateShipsofSize2();
+            prefetchShipCounts();
         }
     }
 
@@ -184,6 +229,7 @@ public class ShipSetActivity extends BaseActivity {
             this.shipsSize3 -= 1;
             this.newShipCount[1] = this.shipsSize3;
             updateShipsofSize3();
+            prefetchShipCounts();
         }
     }
 
@@ -192,6 +238,7 @@ public class ShipSetActivity extends BaseActivity {
             this.shipsSize4 -= 1;
             this.newShipCount[2] = this.shipsSize4;
             updateShipsofSize4();
+            prefetchShipCounts();
         }
     }
 
@@ -200,6 +247,7 @@ public class ShipSetActivity extends BaseActivity {
             this.shipsSize5 -= 1;
             this.newShipCount[3] = this.shipsSize5;
             updateShipsofSize5();
+            prefetchShipCounts();
         }
     }
 
@@ -233,10 +281,13 @@ public class ShipSetActivity extends BaseActivity {
         }
         else{
             this.controller = new GameController(this.gameMode, this.controller.getGridSize(), newShipCount);
-            this.controller.placeAllShips();
+            if (!this.controller.placeAllShips()) {
+                showPlacementFailedDialog();
+                return;
+            }
             // Go back to PlaceShipActivity
             Intent intent = new Intent(this, GameActivity.class);
-            intent.putExtra("controller", this.controller);
+            intent.putExtra("controller", new ParcelableGame(this.controller));
             startActivity(intent);
             finish();
         }
@@ -248,10 +299,13 @@ public class ShipSetActivity extends BaseActivity {
         }
         else{
             this.controller = new GameController(this.gameMode, this.controller.getGridSize(), newShipCount);
-            this.controller.placeAllShips();
+            if (!this.controller.placeAllShips()) {
+                showPlacementFailedDialog();
+                return;
+            }
             // Go back to PlaceShipActivity
             Intent intent = new Intent(this, PlaceShipActivity.class);
-            intent.putExtra("controller", this.controller);
+            intent.putExtra("controller", new ParcelableGame(this.controller));
             startActivity(intent);
         }
     }
@@ -259,7 +313,7 @@ public class ShipSetActivity extends BaseActivity {
     @Override
     public void onSaveInstanceState(Bundle savedInstanceState) {
         this.controller = new GameController(this.gameMode, this.controller.getGridSize(), newShipCount);
-        savedInstanceState.putParcelable("controller", this.controller);
+        savedInstanceState.putParcelable("controller", new ParcelableGame(this.controller));
         super.onSaveInstanceState(savedInstanceState);
     }
 
@@ -302,4 +356,24 @@ public class ShipSetActivity extends BaseActivity {
             return builder.create();
         }
     }
+
+    public static class PlacementFailedDialog extends DialogFragment {
+
+        @Override
+        public void onAttach(Activity activity) {
+            super.onAttach(activity);
+        }
+
+        @Override
+        public Dialog onCreateDialog(Bundle savedInstanceState) {
+            AlertDialog.Builder builder = new AlertDialog.Builder(getActivity());
+
+            builder.setIcon(R.mipmap.icon_drawer);
+            builder.setTitle(R.string.ship_set_alert_title);
+            builder.setMessage(R.string.ship_set_placement_failed_message);
+            builder.setPositiveButton(getActivity().getString(R.string.okay), null);
+
+            return builder.create();
+        }
+    }
 }
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * AIMoveBenchmark.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.secuso.privacyfriendlybattleship.game.AIBudget;
+import org.secuso.privacyfriendlybattleship.game.GameAI;
+import org.secuso.privacyfriendlybattleship.game.GameController;
+import org.secuso.privacyfriendlybattleship.game.GameMode;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a move of the AI in each difficulty level. A new game is started as soon as the AI
+ * has won, so the results include the start of a game once per game.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AIMoveBenchmark extends FleetState {
+
+    @Param({"VS_AI_EASY", "VS_AI_HARD", "VS_AI_EXPERT", "VS_AI_MASTER"})
+    public GameMode mode;
+
+    // Strength of the master AI, see AIBudget.forStrength()
+    @Param({"75"})
+    public int strength;
+
+    private GameController game;
+    private GameAI ai;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        startGame();
+    }
+
+    private void startGame() {
+        this.game = newGame(this.mode);
+        this.ai = this.game.getOpponentAI();
+        this.ai.setBudget(AIBudget.forStrength(this.strength));
+    }
+
+    @Benchmark
+    public void makeMove() {
+        if (this.ai.isAIWinner())
+            startGame();
+        this.game.switchPlayers();
+        this.ai.makeMove();
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * ControllerBenchmark.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.secuso.privacyfriendlybattleship.game.GameCell;
+import org.secuso.privacyfriendlybattleship.game.GameController;
+import org.secuso.privacyfriendlybattleship.game.GameGrid;
+import org.secuso.privacyfriendlybattleship.game.GameMode;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a move of a player. The first player attacks the cells in turn, every attacked
+ * cell is reset afterwards, such that the game never ends.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerBenchmark extends FleetState {
+
+    private GameController game;
+    private GameCell[] cells;
+    private int cell;
+
+    @Setup
+    public void setUp() {
+        this.game = newGame(GameMode.VS_PLAYER);
+        GameGrid grid = this.game.gridUnderAttack();
+        this.cells = new GameCell[this.gridSize * this.gridSize];
+        for (int i = 0; i < this.cells.length; i++) {
+            this.cells[i] = grid.getCell(i % this.gridSize, i / this.gridSize);
+        }
+        this.cell = 0;
+    }
+
+    @Benchmark
+    public boolean makeMove() {
+        GameCell target = this.cells[this.cell];
+        this.cell = (this.cell + 1) % this.cells.length;
+
+        boolean hit = this.game.makeMove(false, target.getCol(), target.getRow());
+        target.setHit(false);
+        return hit;
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * FleetState.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.secuso.privacyfriendlybattleship.game.GameController;
+import org.secuso.privacyfriendlybattleship.game.GameMode;
+
+/**
+ * This class is the common state of the benchmarks, which are run for each fleet. A fleet is given
+ * as the grid size followed by the amount of ships of the sizes 2, 3, 4 and 5, e.g. 10/1-2-1-1
+ * for the standard fleet of the 10x10 grid. The counts are not separated by commas, since JMH
+ * splits the values of -p at commas.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+@State(Scope.Thread)
+public abstract class FleetState {
+
+    // Seed of the first game, such that every run plays the same games
+    static final long SEED = 42;
+
+    @Param({"5/2-1-0-0", "10/1-2-1-1", "10/3-3-2-2"})
+    public String fleet;
+
+    int gridSize;
+    int[] shipCount;
+    private long nextSeed = SEED;
+
+    /**
+     * Starts a game on the fleet with all ships placed randomly. Every game gets another seed, so
+     * the games of a run have different layouts.
+     */
+    GameController newGame(GameMode mode) {
+        if (this.shipCount == null) {
+            String[] parts = this.fleet.split("/");
+            this.gridSize = Integer.parseInt(parts[0]);
+            String[] counts = parts[1].split("-");
+            this.shipCount = new int[counts.length];
+            for (int i = 0; i < counts.length; i++) this.shipCount[i] = Integer.parseInt(counts[i]);
+        }
+
+        GameController game = new GameController(mode, this.gridSize, this.shipCount);
+        game.setSeed(this.nextSeed);
+        this.nextSeed += 0x9E3779B97F4A7C15L;
+        if (!game.placeAllShips())
+            throw new IllegalStateException("The fleet " + this.fleet + " does not fit on the grid.");
+        return game;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * ShipSetBenchmark.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.secuso.privacyfriendlybattleship.game.GameCell;
+import org.secuso.privacyfriendlybattleship.game.GameController;
+import org.secuso.privacyfriendlybattleship.game.GameGrid;
+import org.secuso.privacyfriendlybattleship.game.GameMode;
+import org.secuso.privacyfriendlybattleship.game.GameShip;
+import org.secuso.privacyfriendlybattleship.game.GameShipSet;
+import org.secuso.privacyfriendlybattleship.game.StatefulRandom;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the placement and the queries of a ship set. The queries run on the fleet of the
+ * first player, all of whose ship cells but one have been hit. The random placements replace the
+ * fleet of the second player.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShipSetBenchmark extends FleetState {
+
+    private GameShipSet shipSet;
+    private StatefulRandom ranGen;
+    private GameShipSet placedShipSet;
+    private GameCell[] cells;
+    private int cell;
+
+    @Setup
+    public void setUp() {
+        GameController game = newGame(GameMode.VS_PLAYER);
+        this.shipSet = game.getGridSecondPlayer().getShipSet();
+        this.ranGen = new StatefulRandom(SEED);
+
+        GameGrid grid = game.getGridFirstPlayer();
+        this.placedShipSet = grid.getShipSet();
+        this.cells = new GameCell[this.gridSize * this.gridSize];
+        GameCell lastShipCell = null;
+        for (int i = 0; i < this.cells.length; i++) {
+            this.cells[i] = grid.getCell(i % this.gridSize, i / this.gridSize);
+            if (this.cells[i].isShip()) {
+                this.cells[i].setHit(true);
+                lastShipCell = this.cells[i];
+            }
+        }
+        lastShipCell.setHit(false);
+        this.cell = 0;
+    }
+
+    @Benchmark
+    public boolean placeShipsRandomly() {
+        return this.shipSet.placeShipsRandomly(this.ranGen);
+    }
+
+    @Benchmark
+    public boolean placementLegit() {
+        return this.placedShipSet.placementLegit();
+    }
+
+    @Benchmark
+    public GameShip findShipContainingCell() {
+        this.cell = (this.cell + 1) % this.cells.length;
+        return this.placedShipSet.findShipContainingCell(this.cells[this.cell]);
+    }
+
+    @Benchmark
+    public boolean allShipsDestroyed() {
+        return this.placedShipSet.allShipsDestroyed();
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * StateBenchmark.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.secuso.privacyfriendlybattleship.game.GameAI;
+import org.secuso.privacyfriendlybattleship.game.GameController;
+import org.secuso.privacyfriendlybattleship.game.GameMode;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of writing and restoring the state of a game against the AI, which is what happens
+ * whenever a game is passed between activities. The AI has attacked a quarter of the grid.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateBenchmark extends FleetState {
+
+    private GameController game;
+    private ByteArrayOutputStream bytes;
+    private DataOutputStream out;
+    private byte[] state;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.game = newGame(GameMode.VS_AI_HARD);
+        GameAI ai = this.game.getOpponentAI();
+        for (int i = 0; i < this.gridSize * this.gridSize / 4 && !ai.isAIWinner(); i++) {
+            this.game.switchPlayers();
+            ai.makeMove();
+        }
+
+        this.bytes = new ByteArrayOutputStream();
+        this.out = new DataOutputStream(this.bytes);
+        this.game.writeState(this.out);
+        this.state = this.bytes.toByteArray();
+    }
+
+    @Benchmark
+    public int writeState() throws IOException {
+        this.bytes.reset();
+        this.game.writeState(this.out);
+        return this.bytes.size();
+    }
+
+    @Benchmark
+    public GameController readState() throws IOException {
+        return new GameController(new DataInputStream(new ByteArrayInputStream(this.state)));
+    }
+}
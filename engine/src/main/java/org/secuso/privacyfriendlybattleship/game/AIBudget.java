@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * AIBudget.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+/**
+ * This class holds the compute budget of the master AI for one move: the number of sampled
+ * layouts, the time limit for sampling, the number of configurations up to which the endgame is
+ * enumerated exactly and the number of shots taken from the opening book. A larger budget makes
+ * the AI stronger and slower.
+ *
+ * The budgets form a continuous ladder of strengths from 0 to MAX_STRENGTH, see forStrength().
+ * The sample count, time limit and endgame cutoff grow geometrically with the strength, such that
+ * every step costs the same factor of CPU time. DEFAULT_STRENGTH corresponds to the defaults of
+ * MonteCarloTargeting.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public final class AIBudget {
+
+    public final static int MAX_STRENGTH = 100;
+    public final static int DEFAULT_STRENGTH = 75;
+
+    // Budgets at strength 0 and MAX_STRENGTH
+    private final static int MIN_SAMPLES = 64;
+    private final static int MAX_SAMPLES = 16384;
+    private final static long MIN_TIME_BUDGET = 25;
+    private final static long MAX_TIME_BUDGET = 400;
+    private final static int MIN_ENDGAME_CUTOFF = 500;
+    private final static int MAX_ENDGAME_CUTOFF = 80000;
+
+    private final int samples;
+    private final long timeBudget;
+    private final int endgameCutoff;
+    private final int bookDepth;
+
+    /**
+     * Creates a budget.
+     * @param samples Number of layouts sampled per move
+     * @param timeBudget Time budget for sampling in milliseconds, no limit if it is not positive
+     * @param endgameCutoff Number of configurations up to which the endgame is enumerated, see
+     *                      EndgameSolver. The exact search is disabled if it is not positive.
+     * @param bookDepth Number of shots up to which the opening book is used
+     */
+    public AIBudget(int samples, long timeBudget, int endgameCutoff, int bookDepth) {
+        this.samples = samples;
+        this.timeBudget = timeBudget;
+        this.endgameCutoff = endgameCutoff;
+        this.bookDepth = bookDepth;
+    }
+
+    /**
+     * Returns the budget of the given strength.
+     * @param strength Strength between 0 and MAX_STRENGTH
+     */
+    public static AIBudget forStrength(int strength) {
+        if (strength < 0 || strength > MAX_STRENGTH)
+            throw new IllegalArgumentException("The strength has to be between 0 and " + MAX_STRENGTH + ".");
+        double level = (double) strength / MAX_STRENGTH;
+        return new AIBudget(
+                (int) Math.round(interpolate(MIN_SAMPLES, MAX_SAMPLES, level)),
+                Math.round(interpolate(MIN_TIME_BUDGET, MAX_TIME_BUDGET, level)),
+                (int) Math.round(interpolate(MIN_ENDGAME_CUTOFF, MAX_ENDGAME_CUTOFF, level)),
+                strength * OpeningBookBuilder.DEFAULT_DEPTH / MAX_STRENGTH);
+    }
+
+    /**
+     * Returns this budget without a time limit for sampling. The moves of the AI then only depend
+     * on the random numbers, so a game can be replayed exactly, see GameController.setSeed().
+     */
+    public AIBudget withoutTimeLimit() {
+        return new AIBudget(this.samples, 0, this.endgameCutoff, this.bookDepth);
+    }
+
+    private static double interpolate(double min, double max, double level) {
+        return min * Math.pow(max / min, level);
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    public long getTimeBudget() {
+        return timeBudget;
+    }
+
+    public int getEndgameCutoff() {
+        return endgameCutoff;
+    }
+
+    public int getBookDepth() {
+        return bookDepth;
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Bitboard.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+/**
+ * This class provides static helpers for bitboards. A bitboard is a long array holding one bit
+ * per cell of a grid. The cell in column col and row row has the index row * size + col, so a
+ * 10x10 grid fits in two longs.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public final class Bitboard {
+
+    private Bitboard(){} // this class should not be initialized
+
+    /**
+     * Returns the number of longs needed to store the given amount of cells.
+     * @param cellCount Number of cells
+     * @return Number of words of the bitboard
+     */
+    public static int wordCount(int cellCount) {
+        return (cellCount + 63) >>> 6;
+    }
+
+    public static long[] create(int cellCount) {
+        return new long[wordCount(cellCount)];
+    }
+
+    public static boolean get(long[] board, int index) {
+        return (board[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public static void set(long[] board, int index) {
+        board[index >>> 6] |= 1L << index;
+    }
+
+    public static void clear(long[] board, int index) {
+        board[index >>> 6] &= ~(1L << index);
+    }
+
+    public static void set(long[] board, int index, boolean value) {
+        if (value) {
+            set(board, index);
+        } else {
+            clear(board, index);
+        }
+    }
+
+    public static int popCount(long[] board) {
+        int count = 0;
+        for (long word : board) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Returns true if both bitboards have at least one cell in common.
+     */
+    public static boolean intersects(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if ((a[i] & b[i]) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if every cell set in subset is also set in superset.
+     */
+    public static boolean containsAll(long[] superset, long[] subset) {
+        for (int i = 0; i < subset.length; i++) {
+            if ((subset[i] & ~superset[i]) != 0) return false;
+        }
+        return true;
+    }
+}
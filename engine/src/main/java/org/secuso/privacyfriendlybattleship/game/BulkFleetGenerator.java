@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * BulkFleetGenerator.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * This class writes many random fleet layouts into primitive buffers, without creating a GameGrid
+ * or GameShips for each of them. The layouts are drawn by a FleetSampler and can be stored in two
+ * formats:
+ * - as bitboards, using getWordsPerLayout() longs per layout
+ * - as records, using one int per ship, which is startCell * 2 + (horizontal ? 1 : 0). The start
+ *   cell is the upper left cell of the ship, the ships are ordered from largest to smallest.
+ *
+ * The layouts are uniform among all legal layouts unless the fleet is so dense that the
+ * FleetSampler switches to its Markov chain. Then they are only an approximation and layouts of
+ * the same chunk are correlated, see FleetSampler.isExact(). Statistics over such layouts should
+ * be treated as approximate.
+ *
+ * The buffer is split into chunks of CHUNK_SIZE layouts. Every chunk uses its own random number
+ * generator derived from the seed, so the result only depends on the seed and not on the number
+ * of threads. The parallel methods distribute the chunks on the WorkerPool.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class BulkFleetGenerator {
+
+    // Number of layouts generated by one task
+    public final static int CHUNK_SIZE = 4096;
+
+    private final int gridSize;
+    private final int[] shipCount;
+    private final boolean shipsMayTouch;
+    private final int wordsPerLayout;
+    private final int shipsPerLayout;
+
+    /**
+     * Creates a generator for the given fleet.
+     * @param gridSize Size of the grid
+     * @param shipCount Amount of ships of the sizes 2, 3, 4 and 5
+     * @param shipsMayTouch False if the ships need to have at least one cell in between
+     */
+    public BulkFleetGenerator(int gridSize, int[] shipCount, boolean shipsMayTouch) {
+        this.gridSize = gridSize;
+        this.shipCount = shipCount.clone();
+        this.shipsMayTouch = shipsMayTouch;
+        this.wordsPerLayout = Bitboard.wordCount(gridSize * gridSize);
+
+        int ships = 0;
+        for (int count : shipCount) ships += count;
+        this.shipsPerLayout = ships;
+    }
+
+    public int getWordsPerLayout() {
+        return wordsPerLayout;
+    }
+
+    public int getShipsPerLayout() {
+        return shipsPerLayout;
+    }
+
+    /**
+     * Writes count layouts as bitboards into the buffer, which needs to hold
+     * count * getWordsPerLayout() longs.
+     * @param buffer Buffer for the layouts
+     * @param count Number of layouts
+     * @param seed Seed of the random number generators
+     * @return True if all layouts have been generated, false if the fleet does not fit on the grid
+     */
+    public boolean generateBoards(long[] buffer, int count, long seed) {
+        for (int chunk = 0; chunk * CHUNK_SIZE < count; chunk++) {
+            if (!generateChunk(buffer, null, chunk, count, seed))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Writes count layouts as records into the buffer, which needs to hold
+     * count * getShipsPerLayout() ints.
+     * @param buffer Buffer for the layouts
+     * @param count Number of layouts
+     * @param seed Seed of the random number generators
+     * @return True if all layouts have been generated, false if the fleet does not fit on the grid
+     */
+    public boolean generateRecords(int[] buffer, int count, long seed) {
+        for (int chunk = 0; chunk * CHUNK_SIZE < count; chunk++) {
+            if (!generateChunk(null, buffer, chunk, count, seed))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Same as generateBoards(), but the chunks are generated in parallel. The result is identical
+     * to the one of generateBoards() for the same seed.
+     */
+    public boolean generateBoardsParallel(long[] buffer, int count, long seed) {
+        return generateParallel(buffer, null, count, seed);
+    }
+
+    /**
+     * Same as generateRecords(), but the chunks are generated in parallel. The result is identical
+     * to the one of generateRecords() for the same seed.
+     */
+    public boolean generateRecordsParallel(int[] buffer, int count, long seed) {
+        return generateParallel(null, buffer, count, seed);
+    }
+
+    private boolean generateParallel(final long[] boards, final int[] records, final int count,
+                                     final long seed) {
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int chunk = 0; chunk * CHUNK_SIZE < count; chunk++) {
+            final int chunkIndex = chunk;
+            results.add(WorkerPool.get().submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    return generateChunk(boards, records, chunkIndex, count, seed);
+                }
+            }));
+        }
+
+        boolean generated = true;
+        try {
+            for (Future<Boolean> result : results) {
+                generated &= result.get();
+            }
+        } catch (InterruptedException e) {
+            for (Future<Boolean> result : results) result.cancel(true);
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        return generated;
+    }
+
+    private boolean generateChunk(long[] boards, int[] records, int chunk, int count, long seed) {
+        Random ranGen = new Random(chunkSeed(seed, chunk));
+        FleetSampler sampler = new FleetSampler(this.gridSize, this.shipCount, this.shipsMayTouch, ranGen);
+
+        int end = Math.min(count, (chunk + 1) * CHUNK_SIZE);
+        for (int layout = chunk * CHUNK_SIZE; layout < end; layout++) {
+            if (!sampler.sample())
+                return false;
+
+            if (boards != null)
+                sampler.writeLayout(boards, layout * this.wordsPerLayout);
+            if (records != null) {
+                int offset = layout * this.shipsPerLayout;
+                for (int i = 0; i < this.shipsPerLayout; i++) {
+                    int startCell = sampler.getRow(i) * this.gridSize + sampler.getCol(i);
+                    records[offset + i] = startCell * 2 + (sampler.isHorizontal(i) ? 1 : 0);
+                }
+            }
+        }
+        return true;
+    }
+
+    private static long chunkSeed(long seed, int chunk) {
+        return seed ^ (chunk * 0x9E3779B97F4A7C15L);
+    }
+}
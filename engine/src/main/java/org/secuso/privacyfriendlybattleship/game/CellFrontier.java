@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * CellFrontier.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * This class holds the cells of a grid which have not been attacked yet. The cells are split into
+ * two parity classes by (col + row) % 2, such that every ship covers cells of both classes. Each
+ * class is stored densely in an array together with the position of every cell in that array, so
+ * picking a random cell and removing a cell both take constant time.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class CellFrontier {
+
+    private final int gridSize;
+    private final int[][] cells;    // cells[parity] holds the remaining cells of that parity
+    private final int[] sizes;      // sizes[parity] is the number of remaining cells of that parity
+    private final int[] positions;  // index of a cell in cells[parity] or -1 if it has been removed
+
+    /**
+     * Creates a frontier containing every cell of the grid.
+     * @param gridSize Size of the grid
+     */
+    public CellFrontier(int gridSize) {
+        this.gridSize = gridSize;
+        int cellCount = gridSize * gridSize;
+        this.cells = new int[][]{new int[(cellCount + 1) / 2], new int[(cellCount + 1) / 2]};
+        this.sizes = new int[2];
+        this.positions = new int[cellCount];
+
+        for (int cell = 0; cell < cellCount; cell++) {
+            int parity = parity(cell);
+            this.positions[cell] = this.sizes[parity];
+            this.cells[parity][this.sizes[parity]++] = cell;
+        }
+    }
+
+    /**
+     * Returns the parity class of the cell, i.e. (col + row) % 2.
+     */
+    public int parity(int cell) {
+        return (cell % this.gridSize + cell / this.gridSize) & 1;
+    }
+
+    public boolean contains(int cell) {
+        return this.positions[cell] != -1;
+    }
+
+    public int size() {
+        return this.sizes[0] + this.sizes[1];
+    }
+
+    public int size(int parity) {
+        return this.sizes[parity];
+    }
+
+    /**
+     * Removes the cell from the frontier. Nothing happens if it has been removed before.
+     * @param cell Index of the cell, i.e. row * gridSize + col
+     */
+    public void remove(int cell) {
+        int position = this.positions[cell];
+        if (position == -1)
+            return;
+
+        // Move the last cell of the class into the gap
+        int parity = parity(cell);
+        int last = this.cells[parity][--this.sizes[parity]];
+        this.cells[parity][position] = last;
+        this.positions[last] = position;
+        this.positions[cell] = -1;
+    }
+
+    /**
+     * Returns a random remaining cell. Every remaining cell is chosen with the same probability.
+     * @return Index of the cell or -1 if the frontier is empty
+     */
+    public int pickRandom(Random ranGen) {
+        int size = size();
+        if (size == 0)
+            return -1;
+        int index = ranGen.nextInt(size);
+        if (index < this.sizes[0])
+            return this.cells[0][index];
+        return this.cells[1][index - this.sizes[0]];
+    }
+
+    /**
+     * Returns a random remaining cell of the given parity class. If that class is empty, a random
+     * cell of the other class is returned.
+     * @return Index of the cell or -1 if the frontier is empty
+     */
+    public int pickRandom(int parity, Random ranGen) {
+        if (this.sizes[parity] == 0)
+            return pickRandom(ranGen);
+        return this.cells[parity][ranGen.nextInt(this.sizes[parity])];
+    }
+
+    /*
+    The remaining cells are written in their order, which determines the cell drawn by
+    pickRandom(), so a restored game continues exactly like the original one.
+     */
+    void writeState(DataOutput out) throws IOException {
+        for (int parity = 0; parity < 2; parity++) {
+            out.writeShort(this.sizes[parity]);
+            for (int i = 0; i < this.sizes[parity]; i++) {
+                out.writeByte(this.cells[parity][i]);
+            }
+        }
+    }
+
+    CellFrontier(DataInput in, int gridSize) throws IOException {
+        this.gridSize = gridSize;
+        int cellCount = gridSize * gridSize;
+        this.cells = new int[][]{new int[(cellCount + 1) / 2], new int[(cellCount + 1) / 2]};
+        this.sizes = new int[2];
+        this.positions = new int[cellCount];
+        Arrays.fill(this.positions, -1);
+
+        for (int parity = 0; parity < 2; parity++) {
+            this.sizes[parity] = in.readUnsignedShort();
+            for (int i = 0; i < this.sizes[parity]; i++) {
+                int cell = in.readUnsignedByte();
+                this.cells[parity][i] = cell;
+                this.positions[cell] = i;
+            }
+        }
+    }
+}
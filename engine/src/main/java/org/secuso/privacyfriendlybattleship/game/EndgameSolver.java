@@ -0,0 +1,279 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * EndgameSolver.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import java.util.Random;
+
+/**
+ * This class computes for every cell the exact probability that it contains a ship, by
+ * enumerating every layout of the remaining ships which is consistent with the shots so far. It
+ * is meant for the endgame, when only a few ships and a small unknown region remain and sampling,
+ * see MonteCarloTargeting, wastes most of its layouts on the same configurations.
+ *
+ * The ships are placed one after another by a depth-first search over their placement tables,
+ * largest first. Positions covering water or consisting of hits only are dropped before the
+ * search. Ships of equal size are placed in increasing order of their positions, such that every
+ * configuration is enumerated once, and a branch is pruned as soon as the remaining ships cannot
+ * cover the remaining hits. The last ship only tries the positions covering the first uncovered
+ * hit, if there is one. The search gives up once it has found more than the given number of
+ * configurations or tried more than SEARCH_NODES_PER_CONFIGURATION times as many positions.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class EndgameSolver {
+
+    // Default number of configurations above which the search gives up
+    public final static int DEFAULT_MAX_CONFIGURATIONS = 20000;
+
+    // Number of tried positions per allowed configuration after which the search gives up
+    public final static int SEARCH_NODES_PER_CONFIGURATION = 16;
+
+    private final int gridSize;
+    private final boolean shipsMayTouch;
+
+    private PlacementTable[] shipTables;//placement table of each ship, largest first
+    private int[][] candidates;//positions of each ship which avoid water and are not all hits
+    private int[][] candidateIndices;//index of each position among the candidates of each ship or -1
+    private int[][] weights;//number of configurations found with each candidate of each ship
+    private int[] capacities;//total size of each ship and the ships placed after it
+    private long[][] blocked;//cells which may not be covered by the ship at each depth
+    private long[][] occupied;//cells covered by the ships placed before each depth
+    private long[] hits;
+    private long[] uncovered;//hits which are not covered by the ships placed before the last one
+    private int configurations;
+    private int maxConfigurations;
+    private long nodes;//number of tried positions
+    private long maxNodes;
+
+    public EndgameSolver(int gridSize, boolean shipsMayTouch) {
+        this.gridSize = gridSize;
+        this.shipsMayTouch = shipsMayTouch;
+    }
+
+    /**
+     * Returns the cell which is covered by a ship in most of the consistent configurations, i.e.
+     * the cell with the highest probability of a hit.
+     * @param remainingShips Amount of not destroyed ships of the sizes 2, 3, 4 and 5
+     * @param water Bitboard of the cells which cannot contain a remaining ship
+     * @param hits Bitboard of the hit cells whose ship has not been destroyed yet
+     * @param excluded Bitboard of the cells which may not be chosen
+     * @param maxConfigurations Number of configurations above which the search gives up
+     * @param ranGen Random number generator used to break ties
+     * @return Index of the chosen cell or -1 if the search has given up or found no configuration
+     */
+    public int chooseCell(int[] remainingShips, long[] water, long[] hits, long[] excluded,
+                          int maxConfigurations, Random ranGen) {
+        int[] frequencies = new int[this.gridSize * this.gridSize];
+        if (computeFrequencies(remainingShips, water, hits, maxConfigurations, frequencies) <= 0)
+            return -1;
+        return ProbabilityDensity.chooseCell(frequencies, excluded, ranGen);
+    }
+
+    /**
+     * Counts for every cell in how many of the consistent configurations it is covered by a ship.
+     * @param frequencies Array of length gridSize * gridSize, which is overwritten with the counts
+     * @return The number of configurations or -1 if the search has given up
+     */
+    public int computeFrequencies(int[] remainingShips, long[] water, long[] hits,
+                                  int maxConfigurations, int[] frequencies) {
+        for (int i = 0; i < frequencies.length; i++) frequencies[i] = 0;
+        if (!prepare(remainingShips, water, hits))
+            return 0;
+
+        this.configurations = 0;
+        this.maxConfigurations = maxConfigurations;
+        this.nodes = 0;
+        this.maxNodes = (long) maxConfigurations * SEARCH_NODES_PER_CONFIGURATION;
+        if (this.shipTables.length == 0)
+            return Bitboard.popCount(hits) == 0 ? 1 : 0;
+        if (search(0, 0) < 0)
+            return -1;
+
+        for (int depth = 0; depth < this.shipTables.length; depth++) {
+            PlacementTable table = this.shipTables[depth];
+            for (int c = 0; c < this.candidates[depth].length; c++) {
+                int weight = this.weights[depth][c];
+                if (weight == 0)
+                    continue;
+                for (int i = 0; i < table.getShipSize(); i++) {
+                    frequencies[table.getCell(this.candidates[depth][c], i)] += weight;
+                }
+            }
+        }
+        return this.configurations;
+    }
+
+    /*
+     Sets up the ships and their candidates. Returns false if a ship does not fit on the grid.
+      */
+    private boolean prepare(int[] remainingShips, long[] water, long[] hits) {
+        int shipCount = 0;
+        for (int count : remainingShips) shipCount += count;
+        this.shipTables = new PlacementTable[shipCount];
+        this.candidates = new int[shipCount][];
+        this.candidateIndices = new int[shipCount][];
+        this.weights = new int[shipCount][];
+        this.capacities = new int[shipCount + 1];
+
+        int shipIndex = 0;
+        for (int size = remainingShips.length + 1; size >= 2; size--) {
+            if (remainingShips[size - 2] == 0)
+                continue;
+            if (size > this.gridSize)
+                return false;
+            PlacementTable table = PlacementTable.get(this.gridSize, size);
+            int[] sizeCandidates = collectCandidates(table, water, hits);
+            int[] sizeCandidateIndices = new int[table.getPositionCount()];
+            for (int i = 0; i < sizeCandidateIndices.length; i++) sizeCandidateIndices[i] = -1;
+            for (int c = 0; c < sizeCandidates.length; c++) sizeCandidateIndices[sizeCandidates[c]] = c;
+            for (int j = 0; j < remainingShips[size - 2]; j++) {
+                this.shipTables[shipIndex] = table;
+                this.candidates[shipIndex] = sizeCandidates;
+                this.candidateIndices[shipIndex] = sizeCandidateIndices;
+                this.weights[shipIndex] = new int[sizeCandidates.length];
+                shipIndex++;
+            }
+        }
+        for (int depth = shipCount - 1; depth >= 0; depth--) {
+            this.capacities[depth] = this.capacities[depth + 1] + this.shipTables[depth].getShipSize();
+        }
+
+        int cellCount = this.gridSize * this.gridSize;
+        this.blocked = new long[shipCount + 1][Bitboard.wordCount(cellCount)];
+        this.occupied = new long[shipCount + 1][Bitboard.wordCount(cellCount)];
+        this.uncovered = Bitboard.create(cellCount);
+        System.arraycopy(water, 0, this.blocked[0], 0, water.length);
+        this.hits = hits;
+        return true;
+    }
+
+    private static int[] collectCandidates(PlacementTable table, long[] water, long[] hits) {
+        int count = 0;
+        int[] positions = new int[table.getPositionCount()];
+        for (int position = 0; position < table.getPositionCount(); position++) {
+            // A ship covered by hits completely would have been destroyed
+            if (!table.intersects(position, water) && !table.isCoveredBy(position, hits))
+                positions[count++] = position;
+        }
+        int[] candidates = new int[count];
+        System.arraycopy(positions, 0, candidates, 0, count);
+        return candidates;
+    }
+
+    /*
+     Places the ship at the given depth at each of its candidates from firstCandidate on and
+     searches the ships after it. Returns the number of configurations found or -1 if the search
+     has given up.
+      */
+    private int search(int depth, int firstCandidate) {
+        long[] occupiedBefore = this.occupied[depth];
+        int uncoveredHits = 0;
+        for (int w = 0; w < this.hits.length; w++) {
+            this.uncovered[w] = this.hits[w] & ~occupiedBefore[w];
+            uncoveredHits += Long.bitCount(this.uncovered[w]);
+        }
+        if (uncoveredHits > this.capacities[depth])
+            return 0;
+        if (depth == this.shipTables.length - 1)
+            return placeLastShip(depth, firstCandidate, uncoveredHits);
+
+        PlacementTable table = this.shipTables[depth];
+        int[] shipCandidates = this.candidates[depth];
+        long[] blockedBefore = this.blocked[depth];
+        long[] blockedAfter = this.blocked[depth + 1];
+        long[] occupiedAfter = this.occupied[depth + 1];
+        boolean nextIsEqual = this.shipTables[depth + 1] == table;
+
+        int total = 0;
+        for (int c = firstCandidate; c < shipCandidates.length; c++) {
+            if (++this.nodes > this.maxNodes)
+                return -1;
+            int position = shipCandidates[c];
+            if (table.intersects(position, blockedBefore))
+                continue;
+
+            System.arraycopy(blockedBefore, 0, blockedAfter, 0, blockedAfter.length);
+            System.arraycopy(occupiedBefore, 0, occupiedAfter, 0, occupiedAfter.length);
+            if (this.shipsMayTouch)
+                table.addTo(position, blockedAfter);
+            else
+                table.addHaloTo(position, blockedAfter);
+            table.addTo(position, occupiedAfter);
+
+            int found = search(depth + 1, nextIsEqual ? c + 1 : 0);
+            if (found < 0)
+                return -1;
+            this.weights[depth][c] += found;
+            total += found;
+        }
+        return total;
+    }
+
+    /*
+     Places the last ship, which has to cover every uncovered hit. If there is one, only the
+     positions covering the first uncovered hit are tried.
+      */
+    private int placeLastShip(int depth, int firstCandidate, int uncoveredHits) {
+        PlacementTable table = this.shipTables[depth];
+        long[] blockedBefore = this.blocked[depth];
+        int total = 0;
+
+        if (uncoveredHits == 0) {
+            for (int c = firstCandidate; c < this.candidates[depth].length; c++) {
+                if (++this.nodes > this.maxNodes)
+                    return -1;
+                if (table.intersects(this.candidates[depth][c], blockedBefore))
+                    continue;
+                if (++this.configurations > this.maxConfigurations)
+                    return -1;
+                this.weights[depth][c]++;
+                total++;
+            }
+            return total;
+        }
+
+        int hit = firstCell(this.uncovered);
+        for (int i = 0; i < table.getPositionCountForCell(hit); i++) {
+            int position = table.getPositionForCell(hit, i);
+            int c = this.candidateIndices[depth][position];
+            if (c < firstCandidate)
+                continue;
+            if (++this.nodes > this.maxNodes)
+                return -1;
+            if (table.intersects(position, blockedBefore) || !table.coversAll(position, this.uncovered))
+                continue;
+            if (++this.configurations > this.maxConfigurations)
+                return -1;
+            this.weights[depth][c]++;
+            total++;
+        }
+        return total;
+    }
+
+    private static int firstCell(long[] board) {
+        for (int w = 0; w < board.length; w++) {
+            if (board[w] != 0)
+                return (w << 6) + Long.numberOfTrailingZeros(board[w]);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,324 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * FleetFeasibility.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This class decides whether a ship-count can be placed on a grid. The cells are visited row by
+ * row and at every cell the search either starts a remaining ship there, horizontally or
+ * vertically, or leaves the cell empty. Every placement is found this way, since every ship has
+ * exactly one upper left cell. The search is pruned as follows:
+ * - The remaining ships need to fit into the available cells after the current cell. If ships may
+ *   not touch, every ship of size s together with its right and lower neighbours covers 2 * (s + 1)
+ *   cells of the grid extended by one row and column, and these areas do not overlap.
+ * - Placements are symmetric under transposition, so at most half of the largest ships are
+ *   placed vertically.
+ * - States which have already failed are remembered in a table of fixed size, by a 64 bit hash of
+ *   the state. Entries are overwritten on collisions of the table index.
+ * The search gives up after NODE_LIMIT steps, the ship-count then counts as not feasible. Results
+ * are cached for the lifetime of the process.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public final class FleetFeasibility {
+
+    // Maximum number of steps of a search, afterwards the ship-count counts as not feasible
+    public final static int NODE_LIMIT = 2000000;
+
+    // Number of entries of the table of failed states, a power of two
+    private final static int FAILED_TABLE_SIZE = 1 << 15;
+
+    private static final Map<Long, Boolean> results = new ConcurrentHashMap<>();
+    private static ExecutorService executor;
+
+    /**
+     * Callback for the asynchronous check. It is called on a background thread.
+     */
+    public interface Callback {
+        void onResult(int[] shipCount, boolean feasible);
+    }
+
+    private final int gridSize;
+    private final boolean shipsMayTouch;
+    private final int[] remaining;
+    private final PlacementTable[] tables;
+    private final long[] unavailable;
+    private final long[] footprints;//cells of the extended grid covered by the ships and their right and lower neighbours
+    private final long[][] savedUnavailable;//unavailable cells before the placement of the ship with the given index
+    private final long[][] savedFootprints;
+    private final long[] failedStates = new long[FAILED_TABLE_SIZE];//hashes of failed states, 0 if empty
+    private final int largest;//index of the largest ship size in the ship-count
+    private final int maxVerticalLargest;
+    private int verticalLargest;//number of vertical ships of the largest size
+    private int placedShips;
+    private int remainingShips;
+    private int nodes;
+    private boolean aborted;
+
+    private FleetFeasibility(int gridSize, int[] shipCount, boolean shipsMayTouch) {
+        this.gridSize = gridSize;
+        this.shipsMayTouch = shipsMayTouch;
+        this.remaining = shipCount.clone();
+        this.tables = new PlacementTable[shipCount.length];
+        for (int i = 0; i < shipCount.length; i++) {
+            if (i + 2 <= gridSize)
+                this.tables[i] = PlacementTable.get(gridSize, i + 2);
+        }
+        this.unavailable = Bitboard.create(gridSize * gridSize);
+        this.footprints = Bitboard.create((gridSize + 1) * (gridSize + 1));
+
+        int largest = 0;
+        for (int i = 0; i < shipCount.length; i++) {
+            this.remainingShips += shipCount[i];
+            if (shipCount[i] > 0)
+                largest = i;
+        }
+        this.largest = largest;
+        this.maxVerticalLargest = shipCount[largest] / 2;
+        this.savedUnavailable = new long[this.remainingShips][this.unavailable.length];
+        this.savedFootprints = new long[this.remainingShips][this.footprints.length];
+    }
+
+    /**
+     * Returns true if the ships can be placed on the grid according to the rules. The result is
+     * cached, such that repeated calls for the same arguments return immediately.
+     * @param gridSize Size of the grid
+     * @param shipCount Amount of ships of the sizes 2, 3, 4 and 5
+     * @param shipsMayTouch False if ships need to have at least one cell in between
+     * @return True if there is a legit placement of the ships, false if there is none or it has
+     * not been found within NODE_LIMIT steps
+     */
+    public static boolean isFeasible(int gridSize, int[] shipCount, boolean shipsMayTouch) {
+        Long key = cacheKey(gridSize, shipCount, shipsMayTouch);
+        Boolean result = results.get(key);
+        if (result == null) {
+            result = new FleetFeasibility(gridSize, shipCount, shipsMayTouch).search();
+            results.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cached result for the given arguments without starting a search.
+     * @return The cached result or null if the ship-count has not been checked yet
+     */
+    public static Boolean getCachedResult(int gridSize, int[] shipCount, boolean shipsMayTouch) {
+        return results.get(cacheKey(gridSize, shipCount, shipsMayTouch));
+    }
+
+    /**
+     * Checks the ship-count on a background thread and reports the result to the callback. Checks
+     * are executed one after another in the order they have been requested.
+     */
+    public static void checkAsync(final int gridSize, final int[] shipCount,
+                                  final boolean shipsMayTouch, final Callback callback) {
+        final int[] count = shipCount.clone();
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                boolean feasible = isFeasible(gridSize, count, shipsMayTouch);
+                if (callback != null)
+                    callback.onResult(count, feasible);
+            }
+        });
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "FleetFeasibility");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return executor;
+    }
+
+    private static long cacheKey(int gridSize, int[] shipCount, boolean shipsMayTouch) {
+        long key = gridSize;
+        for (int count : shipCount) {
+            key = key * 128 + count;
+        }
+        return key * 2 + (shipsMayTouch ? 1 : 0);
+    }
+
+    private boolean search() {
+        int shipCells = 0;
+        for (int i = 0; i < this.remaining.length; i++) {
+            if (this.remaining[i] > 0 && this.tables[i] == null)
+                return false;
+            shipCells += this.remaining[i] * (i + 2);
+        }
+        if (shipCells > this.gridSize * this.gridSize)
+            return false;
+        return search(0, shipCells) && !this.aborted;
+    }
+
+    private boolean search(int cell, int shipCells) {
+        if (shipCells == 0)
+            return true;
+        if (++this.nodes > NODE_LIMIT)
+            this.aborted = true;
+        if (this.aborted)
+            return false;
+
+        int cellCount = this.gridSize * this.gridSize;
+        if (shipCells > cellCount - cell - countFrom(this.unavailable, cell))
+            return false;
+        if (!this.shipsMayTouch && 2 * (shipCells + this.remainingShips) > freeFootprintCells(cell))
+            return false;
+
+        long hash = stateHash(cell);
+        int slot = (int) hash & (FAILED_TABLE_SIZE - 1);
+        if (this.failedStates[slot] == hash)
+            return false;
+
+        if (!Bitboard.get(this.unavailable, cell)) {
+            int col = cell % this.gridSize;
+            int row = cell / this.gridSize;
+            for (int i = this.remaining.length - 1; i >= 0; i--) {
+                if (this.remaining[i] == 0)
+                    continue;
+                PlacementTable table = this.tables[i];
+                int size = i + 2;
+                if (col + size <= this.gridSize &&
+                        tryPosition(table.getPosition(col, row, true), i, cell, shipCells))
+                    return true;
+                if (row + size <= this.gridSize &&
+                        (i != this.largest || this.verticalLargest < this.maxVerticalLargest) &&
+                        tryPosition(table.getPosition(col, row, false), i, cell, shipCells))
+                    return true;
+            }
+        }
+
+        // Leave the cell empty
+        if (search(cell + 1, shipCells))
+            return true;
+
+        if (!this.aborted)
+            this.failedStates[slot] = hash;
+        return false;
+    }
+
+    private boolean tryPosition(int position, int sizeIndex, int cell, int shipCells) {
+        PlacementTable table = this.tables[sizeIndex];
+        if (table.intersects(position, this.unavailable))
+            return false;
+
+        long[] savedUnavailable = this.savedUnavailable[this.placedShips];
+        long[] savedFootprints = this.savedFootprints[this.placedShips];
+        System.arraycopy(this.unavailable, 0, savedUnavailable, 0, savedUnavailable.length);
+        System.arraycopy(this.footprints, 0, savedFootprints, 0, savedFootprints.length);
+        boolean vertical = !table.isHorizontal(position);
+        if (this.shipsMayTouch) {
+            table.addTo(position, this.unavailable);
+        } else {
+            table.addHaloTo(position, this.unavailable);
+            addFootprint(table.getCol(position), table.getRow(position), sizeIndex + 2, vertical);
+        }
+        if (vertical && sizeIndex == this.largest)
+            this.verticalLargest++;
+        this.remaining[sizeIndex]--;
+        this.remainingShips--;
+        this.placedShips++;
+
+        boolean found = search(cell + 1, shipCells - (sizeIndex + 2));
+
+        this.placedShips--;
+        this.remainingShips++;
+        this.remaining[sizeIndex]++;
+        if (vertical && sizeIndex == this.largest)
+            this.verticalLargest--;
+        System.arraycopy(savedUnavailable, 0, this.unavailable, 0, savedUnavailable.length);
+        System.arraycopy(savedFootprints, 0, this.footprints, 0, savedFootprints.length);
+        return found;
+    }
+
+    /*
+    Marks the ship and its right and lower neighbours on the grid extended by one row and column.
+     */
+    private void addFootprint(int col, int row, int size, boolean vertical) {
+        int width = this.gridSize + 1;
+        int cols = vertical ? 2 : size + 1;
+        int rows = vertical ? size + 1 : 2;
+        for (int r = row; r < row + rows; r++) {
+            for (int c = col; c < col + cols; c++) {
+                Bitboard.set(this.footprints, r * width + c);
+            }
+        }
+    }
+
+    /*
+    Returns the number of cells of the extended grid from the given cell onwards which are not
+    covered by the footprint of a ship. The footprints of the remaining ships have to fit in there.
+     */
+    private int freeFootprintCells(int cell) {
+        int width = this.gridSize + 1;
+        int index = (cell / this.gridSize) * width + cell % this.gridSize;
+        return width * width - index - countFrom(this.footprints, index);
+    }
+
+    private static int countFrom(long[] board, int cell) {
+        int count = 0;
+        for (int w = cell >>> 6; w < board.length; w++) {
+            long word = board[w];
+            if (w == cell >>> 6)
+                word &= -1L << cell;
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /*
+    A state of the search consists of the current cell, the unavailable cells from the current
+    cell onwards, the amount of remaining ships and the number of vertical ships of the largest
+    size. Cells before the current cell do not influence the rest of the search. The hash is never
+    0, which marks empty entries of the table.
+     */
+    private long stateHash(int cell) {
+        long hash = mix((long) cell << 32 | this.verticalLargest);
+        for (int w = cell >>> 6; w < this.unavailable.length; w++) {
+            long word = this.unavailable[w];
+            if (w == cell >>> 6)
+                word &= -1L << cell;
+            hash = mix(hash ^ word);
+        }
+        for (int count : this.remaining) {
+            hash = mix(hash ^ count);
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+}
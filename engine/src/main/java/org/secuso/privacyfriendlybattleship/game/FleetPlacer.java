@@ -0,0 +1,291 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * FleetPlacer.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import java.util.Random;
+
+/**
+ * This class places a fleet randomly on an empty grid. Every ship is chosen from the legal
+ * positions for its length, which are taken from the shared PlacementTables. If a ship does not
+ * fit anymore, the placer backtracks to the previous ship. If ships may not touch, the halo of
+ * every placed ship is blocked for the following ships. The search is bounded by a time budget,
+ * such that an infeasible fleet is reported instead of blocking the caller.
+ *
+ * Optionally the placement can be restricted to be consistent with the shots of a player, see
+ * setConstraints().
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class FleetPlacer {
+
+    // Default time budget for placing a fleet in milliseconds
+    public final static long DEFAULT_TIME_BUDGET = 500;
+
+    private final int gridSize;
+    private final int[] shipSizes;//sizes of the ships to place, largest first
+    private final boolean shipsMayTouch;
+    private final Random ranGen;
+
+    private PlacementTable[] tables;//legal positions, indexed by ship size
+
+    private long[] water;//cells which may not be covered, null if there is no restriction
+    private long[] hits;//cells which need to be covered, null if there is no restriction
+
+    private long[][] blockedCells;//cells blocked by the ships placed so far, indexed by ship index
+    private long[][] occupiedCells;//cells covered by the ships placed so far, indexed by ship index
+    private int[] chosenPositions;
+    private int[][] positionOrder;//random order in which the positions are tried, indexed by ship size
+    private long deadline;
+    private boolean timedOut;
+    private Clock clock = Clock.SYSTEM;
+
+    /**
+     * Creates a placer for the given fleet.
+     * @param gridSize Size of the grid
+     * @param shipCount Amount of ships of the sizes 2, 3, 4 and 5
+     * @param shipsMayTouch False if the ships need to have at least one cell in between
+     * @param ranGen Random number generator used to choose the positions
+     */
+    public FleetPlacer(int gridSize, int[] shipCount, boolean shipsMayTouch, Random ranGen) {
+        this.gridSize = gridSize;
+        this.shipsMayTouch = shipsMayTouch;
+        this.ranGen = ranGen;
+
+        int totalShipCount = 0;
+        for (int count : shipCount) totalShipCount += count;
+        this.shipSizes = new int[totalShipCount];
+        int shipIndex = 0;
+        for (int size = shipCount.length + 1; size >= 2; size--) {
+            for (int j = 0; j < shipCount[size - 2]; j++) {
+                this.shipSizes[shipIndex++] = size;
+            }
+        }
+
+        initializePositions();
+    }
+
+    private void initializePositions() {
+        int maxSize = this.shipSizes.length == 0 ? 0 : this.shipSizes[0];
+        this.tables = new PlacementTable[maxSize + 1];
+        this.positionOrder = new int[maxSize + 1][];
+
+        for (int size : this.shipSizes) {
+            if (this.tables[size] != null || size > this.gridSize)
+                continue;
+            this.tables[size] = PlacementTable.get(this.gridSize, size);
+            this.positionOrder[size] = new int[this.tables[size].getPositionCount()];
+        }
+    }
+
+    /**
+     * Restricts the placement to the cells which are not known to be water and requires every hit
+     * cell to be covered by a ship. No ship may be covered by hits completely, since it would
+     * have been destroyed then.
+     * @param water Bitboard of the cells which may not be covered or null
+     * @param hits Bitboard of the cells which need to be covered or null
+     */
+    public void setConstraints(long[] water, long[] hits) {
+        this.water = water;
+        this.hits = hits;
+    }
+
+    /*
+     Sets the clock the time budget is measured with, the tests use a clock which advances on
+     every read.
+      */
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Searches a random legal placement of the fleet. If the placement succeeds, the position of
+     * each ship can be requested with the getters of this class.
+     * @param timeBudget Maximum time for the search in milliseconds
+     * @return True if the fleet has been placed, false if it does not fit on the grid or no
+     * placement has been found within the time budget
+     */
+    public boolean place(long timeBudget) {
+        this.chosenPositions = new int[this.shipSizes.length];
+        this.deadline = this.clock.nanoTime() + timeBudget * 1000000L;
+        this.timedOut = false;
+
+        for (int size = 0; size < this.tables.length; size++) {
+            if (this.tables[size] != null)
+                shuffle(this.positionOrder[size]);
+        }
+
+        for (int size : this.shipSizes) {
+            if (this.tables[size] == null)
+                return false;
+        }
+
+        int words = Bitboard.wordCount(this.gridSize * this.gridSize);
+        this.blockedCells = new long[this.shipSizes.length + 1][words];
+        this.occupiedCells = new long[this.shipSizes.length + 1][words];
+        if (this.water != null)
+            System.arraycopy(this.water, 0, this.blockedCells[0], 0, words);
+        int shipCells = 0;
+        for (int size : this.shipSizes) shipCells += size;
+
+        return placeShip(0, shipCells);
+    }
+
+    private boolean placeShip(int shipIndex, int shipCells) {
+        long[] occupied = this.occupiedCells[shipIndex];
+        if (shipIndex == this.shipSizes.length)
+            return this.hits == null || Bitboard.containsAll(occupied, this.hits);
+        long[] blocked = this.blockedCells[shipIndex];
+        if (shipCells > this.gridSize * this.gridSize - Bitboard.popCount(blocked))
+            return false;
+        if (this.hits != null && !canCoverHits(shipIndex, shipCells, blocked, occupied))
+            return false;
+        if (this.clock.nanoTime() > this.deadline) {
+            this.timedOut = true;
+            return false;
+        }
+
+        int size = this.shipSizes[shipIndex];
+        PlacementTable table = this.tables[size];
+        int[] order = this.positionOrder[size];
+
+        // Ships of the same size are placed in the order of their positions to avoid
+        // searching permutations of the same placement.
+        int firstCandidate = 0;
+        if (shipIndex > 0 && this.shipSizes[shipIndex - 1] == size)
+            firstCandidate = this.chosenPositions[shipIndex - 1] + 1;
+
+        for (int k = firstCandidate; k < order.length; k++) {
+            int position = order[k];
+            if (table.intersects(position, blocked))
+                continue;
+            if (this.hits != null && table.isCoveredBy(position, this.hits))
+                continue;
+
+            this.chosenPositions[shipIndex] = k;
+            long[] next = this.blockedCells[shipIndex + 1];
+            System.arraycopy(blocked, 0, next, 0, blocked.length);
+            if (this.shipsMayTouch)
+                table.addTo(position, next);
+            else
+                table.addHaloTo(position, next);
+            long[] nextOccupied = this.occupiedCells[shipIndex + 1];
+            System.arraycopy(occupied, 0, nextOccupied, 0, occupied.length);
+            table.addTo(position, nextOccupied);
+            if (placeShip(shipIndex + 1, shipCells - size))
+                return true;
+
+            if (this.timedOut)
+                return false;
+        }
+        return false;
+    }
+
+    /*
+     Returns false if the remaining ships cannot cover the hits which are not covered yet, i.e. if
+     there are more of these hits than remaining ship cells or a hit cannot be reached by any
+     remaining ship.
+      */
+    private boolean canCoverHits(int shipIndex, int shipCells, long[] blocked, long[] occupied) {
+        int uncoveredHits = 0;
+        for (int w = 0; w < occupied.length; w++) {
+            uncoveredHits += Long.bitCount(this.hits[w] & ~occupied[w]);
+        }
+        if (uncoveredHits > shipCells)
+            return false;
+
+        for (int w = 0; w < occupied.length; w++) {
+            long word = this.hits[w] & ~occupied[w];
+            while (word != 0) {
+                int cell = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (!canReach(shipIndex, cell, blocked))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean canReach(int shipIndex, int cell, long[] blocked) {
+        for (int i = shipIndex; i < this.shipSizes.length; i++) {
+            if (i > shipIndex && this.shipSizes[i] == this.shipSizes[i - 1])
+                continue;
+            PlacementTable table = this.tables[this.shipSizes[i]];
+            for (int j = 0; j < table.getPositionCountForCell(cell); j++) {
+                int position = table.getPositionForCell(cell, j);
+                if (!table.intersects(position, blocked) && !table.isCoveredBy(position, this.hits))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private void shuffle(int[] order) {
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = this.ranGen.nextInt(i + 1);
+            int temp = order[i];
+            order[i] = order[j];
+            order[j] = temp;
+        }
+    }
+
+    /**
+     * Returns true if the last call of place() has been aborted because the time budget was
+     * exceeded. In that case the fleet might still fit on the grid.
+     */
+    public boolean hasTimedOut() {
+        return timedOut;
+    }
+
+    public int getShipCount() {
+        return shipSizes.length;
+    }
+
+    public int getShipSize(int shipIndex) {
+        return shipSizes[shipIndex];
+    }
+
+    /**
+     * Returns the column of the upper left cell of the given ship.
+     */
+    public int getCol(int shipIndex) {
+        return this.tables[this.shipSizes[shipIndex]].getCol(getPosition(shipIndex));
+    }
+
+    /**
+     * Returns the row of the upper left cell of the given ship.
+     */
+    public int getRow(int shipIndex) {
+        return this.tables[this.shipSizes[shipIndex]].getRow(getPosition(shipIndex));
+    }
+
+    public boolean isHorizontal(int shipIndex) {
+        return this.tables[this.shipSizes[shipIndex]].isHorizontal(getPosition(shipIndex));
+    }
+
+    /**
+     * Returns the index of the given ship's position in the placement table for its size.
+     */
+    public int getPosition(int shipIndex) {
+        return this.positionOrder[this.shipSizes[shipIndex]][this.chosenPositions[shipIndex]];
+    }
+}
@@ -0,0 +1,319 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * FleetSampler.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import java.util.Random;
+
+/**
+ * This class draws legal fleet layouts at random. Every ship gets a position drawn uniformly from
+ * the PlacementTable for its size and the whole layout is discarded as soon as a ship collides
+ * with the ships drawn before. Since every legal layout is drawn with the same probability, the
+ * accepted layouts are exactly uniform.
+ *
+ * For dense fleets almost every layout is discarded. If a single sample needs more than
+ * REJECTION_LIMIT attempts, the sampler switches to a Markov chain instead: it starts from a
+ * layout found by the FleetPlacer and repeatedly moves a random ship to a random position, keeping
+ * the move if the layout stays legal. Moving single ships is not known to reach every legal layout
+ * of dense or no-touch fleets, so the layouts of the chain are only approximately uniform and
+ * consecutive samples are correlated. isExact() tells whether the sampler has switched.
+ *
+ * The layouts can be restricted to be consistent with the shots of a player, see
+ * setConstraints(). As long as the sampler is exact, the layouts are then uniform among the
+ * consistent layouts.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class FleetSampler {
+
+    // Number of discarded layouts after which the sampler switches to the Markov chain
+    public final static int REJECTION_LIMIT = 20000;
+
+    // Number of moves per ship of the Markov chain between two samples
+    public final static int STEPS_PER_SHIP = 5;
+
+    private final int gridSize;
+    private final int[] shipSizes;//sizes of the ships, largest first
+    private final PlacementTable[] shipTables;//placement table of each ship
+    private final boolean shipsMayTouch;
+    private final Random ranGen;
+
+    private long[] water;//cells which may not be covered, null if there is no restriction
+    private long[] hits;//cells which need to be covered, null if there is no restriction
+    private int rejectionLimit = REJECTION_LIMIT;
+    private long deadline = Long.MAX_VALUE;//in terms of clock.nanoTime()
+    private Clock clock = Clock.SYSTEM;
+
+    private final int[] positions;//position of each ship in its placement table
+    private final long[] blocked;//cells which may not be covered by the next ship
+    private final long[] occupied;//cells covered by the ships
+    private final long[] required;//hits which are not covered by the other ships, used by the chain
+    private boolean useChain;
+    private boolean chainInitialized;
+    private boolean feasible = true;
+
+    /**
+     * Creates a sampler for the given fleet.
+     * @param gridSize Size of the grid
+     * @param shipCount Amount of ships of the sizes 2, 3, 4 and 5
+     * @param shipsMayTouch False if the ships need to have at least one cell in between
+     * @param ranGen Random number generator used to draw the layouts
+     */
+    public FleetSampler(int gridSize, int[] shipCount, boolean shipsMayTouch, Random ranGen) {
+        this.gridSize = gridSize;
+        this.shipsMayTouch = shipsMayTouch;
+        this.ranGen = ranGen;
+
+        int totalShipCount = 0;
+        for (int count : shipCount) totalShipCount += count;
+        this.shipSizes = new int[totalShipCount];
+        this.shipTables = new PlacementTable[totalShipCount];
+        int shipIndex = 0;
+        for (int size = shipCount.length + 1; size >= 2; size--) {
+            for (int j = 0; j < shipCount[size - 2]; j++) {
+                this.shipSizes[shipIndex] = size;
+                if (size <= gridSize)
+                    this.shipTables[shipIndex] = PlacementTable.get(gridSize, size);
+                else
+                    this.feasible = false;
+                shipIndex++;
+            }
+        }
+
+        this.positions = new int[totalShipCount];
+        this.blocked = Bitboard.create(gridSize * gridSize);
+        this.occupied = Bitboard.create(gridSize * gridSize);
+        this.required = Bitboard.create(gridSize * gridSize);
+    }
+
+    /**
+     * Restricts the layouts to the cells which are not known to be water and requires every hit
+     * cell to be covered by a ship. No ship may be covered by hits completely, since it would
+     * have been destroyed then. The sampler starts over with exact sampling afterwards.
+     * @param water Bitboard of the cells which may not be covered or null
+     * @param hits Bitboard of the cells which need to be covered or null
+     */
+    public void setConstraints(long[] water, long[] hits) {
+        this.water = water;
+        this.hits = hits;
+        this.useChain = false;
+        this.chainInitialized = false;
+    }
+
+    /**
+     * Sets the number of discarded layouts after which the sampler switches to the Markov chain.
+     */
+    public void setRejectionLimit(int rejectionLimit) {
+        this.rejectionLimit = rejectionLimit;
+    }
+
+    /**
+     * Sets the time after which no more layouts are drawn. The search of the FleetPlacer for the
+     * starting layout of the Markov chain is bounded by the remaining time as well.
+     * @param deadline Deadline in terms of System.nanoTime(), Long.MAX_VALUE for no deadline
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    /*
+     Sets the clock the deadline refers to, the tests use a clock which advances on every read.
+      */
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Draws the next layout. Afterwards the position of each ship can be requested with the
+     * getters of this class.
+     * @return True if a layout has been drawn, false if the fleet does not fit on the grid, the
+     * deadline has passed or the FleetPlacer has not found a starting layout for the Markov chain
+     * within its time budget
+     */
+    public boolean sample() {
+        if (!this.feasible || (this.deadline != Long.MAX_VALUE && this.clock.nanoTime() > this.deadline))
+            return false;
+        if (!this.useChain) {
+            for (int attempt = 0; attempt < this.rejectionLimit; attempt++) {
+                if (tryLayout())
+                    return true;
+            }
+            this.useChain = true;
+        }
+        return sampleFromChain();
+    }
+
+    /**
+     * Returns true as long as the layouts are drawn exactly uniformly, i.e. the sampler has not
+     * switched to the Markov chain. Layouts drawn afterwards are only an approximation, some legal
+     * layouts may never be drawn.
+     */
+    public boolean isExact() {
+        return !useChain;
+    }
+
+    private boolean tryLayout() {
+        for (int w = 0; w < this.blocked.length; w++) {
+            this.blocked[w] = this.water == null ? 0 : this.water[w];
+            this.occupied[w] = 0;
+        }
+
+        for (int i = 0; i < this.shipSizes.length; i++) {
+            PlacementTable table = this.shipTables[i];
+            int position = this.ranGen.nextInt(table.getPositionCount());
+            if (table.intersects(position, this.blocked))
+                return false;
+            if (this.hits != null && table.isCoveredBy(position, this.hits))
+                return false;
+
+            this.positions[i] = position;
+            if (this.shipsMayTouch)
+                table.addTo(position, this.blocked);
+            else
+                table.addHaloTo(position, this.blocked);
+            table.addTo(position, this.occupied);
+        }
+        return this.hits == null || Bitboard.containsAll(this.occupied, this.hits);
+    }
+
+    private boolean sampleFromChain() {
+        if (!this.chainInitialized) {
+            FleetPlacer placer = new FleetPlacer(this.gridSize, getShipCountBySize(), this.shipsMayTouch, this.ranGen);
+            placer.setConstraints(this.water, this.hits);
+            placer.setClock(this.clock);
+            long timeBudget = FleetPlacer.DEFAULT_TIME_BUDGET;
+            if (this.deadline != Long.MAX_VALUE)
+                timeBudget = Math.min(timeBudget, (this.deadline - this.clock.nanoTime()) / 1000000L);
+            if (timeBudget <= 0)
+                return false;// too little time left, a later deadline may still find a layout
+            if (!placer.place(timeBudget)) {
+                // Only give up for good if the fleet does certainly not fit
+                if (!placer.hasTimedOut())
+                    this.feasible = false;
+                return false;
+            }
+            for (int i = 0; i < this.shipSizes.length; i++) {
+                this.positions[i] = placer.getPosition(i);
+            }
+            this.chainInitialized = true;
+        }
+
+        int steps = STEPS_PER_SHIP * this.shipSizes.length;
+        for (int step = 0; step < steps; step++) {
+            moveRandomShip();
+        }
+        return true;
+    }
+
+    private void moveRandomShip() {
+        int shipIndex = this.ranGen.nextInt(this.shipSizes.length);
+        PlacementTable table = this.shipTables[shipIndex];
+        int position = this.ranGen.nextInt(table.getPositionCount());
+
+        for (int w = 0; w < this.blocked.length; w++) {
+            this.blocked[w] = this.water == null ? 0 : this.water[w];
+            this.occupied[w] = 0;
+        }
+        for (int i = 0; i < this.shipSizes.length; i++) {
+            if (i == shipIndex)
+                continue;
+            if (this.shipsMayTouch)
+                this.shipTables[i].addTo(this.positions[i], this.blocked);
+            else
+                this.shipTables[i].addHaloTo(this.positions[i], this.blocked);
+            this.shipTables[i].addTo(this.positions[i], this.occupied);
+        }
+
+        if (table.intersects(position, this.blocked))
+            return;
+        if (this.hits != null) {
+            // The moved ship has to cover the hits which are not covered by the other ships
+            for (int w = 0; w < this.required.length; w++) {
+                this.required[w] = this.hits[w] & ~this.occupied[w];
+            }
+            if (table.isCoveredBy(position, this.hits) || !table.coversAll(position, this.required))
+                return;
+        }
+        this.positions[shipIndex] = position;
+    }
+
+    private int[] getShipCountBySize() {
+        int[] shipCount = new int[4];
+        for (int size : this.shipSizes) shipCount[size - 2]++;
+        return shipCount;
+    }
+
+    /**
+     * Marks the cells covered by the ships of the last layout on the given bitboard.
+     */
+    public void addLayoutTo(long[] board) {
+        for (int i = 0; i < this.shipSizes.length; i++) {
+            this.shipTables[i].addTo(this.positions[i], board);
+        }
+    }
+
+    /**
+     * Writes the cells covered by the ships of the last layout as a bitboard into the buffer,
+     * starting at the given offset. Existing bits in that range are overwritten.
+     */
+    public void writeLayout(long[] buffer, int offset) {
+        for (int w = 0; w < this.blocked.length; w++) {
+            long word = 0;
+            for (int i = 0; i < this.shipSizes.length; i++) {
+                word |= this.shipTables[i].getMaskWord(this.positions[i], w);
+            }
+            buffer[offset + w] = word;
+        }
+    }
+
+    public int getShipCount() {
+        return shipSizes.length;
+    }
+
+    public int getShipSize(int shipIndex) {
+        return shipSizes[shipIndex];
+    }
+
+    /**
+     * Returns the index of the given ship's position in the placement table for its size.
+     */
+    public int getPosition(int shipIndex) {
+        return positions[shipIndex];
+    }
+
+    /**
+     * Returns the column of the upper left cell of the given ship.
+     */
+    public int getCol(int shipIndex) {
+        return shipTables[shipIndex].getCol(positions[shipIndex]);
+    }
+
+    /**
+     * Returns the row of the upper left cell of the given ship.
+     */
+    public int getRow(int shipIndex) {
+        return shipTables[shipIndex].getRow(positions[shipIndex]);
+    }
+
+    public boolean isHorizontal(int shipIndex) {
+        return shipTables[shipIndex].isHorizontal(positions[shipIndex]);
+    }
+}
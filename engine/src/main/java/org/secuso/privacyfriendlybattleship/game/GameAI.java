@@ -0,0 +1,531 @@
+/*
+    Copyright 2017 Alexander Müller, Ali Kalsen
+
+    This file is part of Privacy Friendly Battleships.
+
+    Privacy Friendly Battleships is free software: you can redistribute
+    it and/or modify it under the terms of the GNU General Public License
+    as published by the Free Software Foundation, either version 3 of the
+    License, or (at your option) any later version.
+
+    Privacy Friendly Battleships is distributed in the hope that it will
+    be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+    of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with Foobar.  If not, see http://www.gnu.org/licenses/.
+ */
+
+/**
+ * This class represents the AI for the battleships game. The AI can be
+ * initialized in one of four difficulty levels and and will make its
+ * moves accordingly.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Created by Alexander Müller on 16.12.2016.
+ */
+
+public class GameAI {
+
+    private enum Cell {
+        UNKNOWN(0), WATER(1), SHIP(2);
+
+        int val;
+        Cell(int i) {
+            val = i;
+        }
+    }
+
+    private int[][] gridUnderAttack;//represents the opponents grid; 0: unknown, 1: ship, 2: water
+    private boolean hasAIWon;
+    private int gridSize;
+    private GameMode mode;
+    private GameController controller;
+    private StatefulRandom ranGen;
+    private int[] openHits;//hit cells whose ship has not been destroyed yet, most recent last
+    private int openHitCount;
+    private int[] targets = new int[4];//candidates for the next move of the hard AI
+    private CellFrontier frontier;//cells which have not been attacked yet
+    private AIBudget budget = AIBudget.forStrength(AIBudget.DEFAULT_STRENGTH);
+    // Buffers of chooseDensityTarget(), which are reused on every move
+    private long[] densityWater;
+    private long[] densityHits;
+    private long[] densityExcluded;
+    private int[] densityScores;
+    private int[] remainingShips = new int[4];
+    // State of the random number generator before the move which has been chosen but not applied
+    // yet, see getRandomState()
+    private final Object randomStateLock = new Object();
+    private boolean movePending;
+    private long randomStateBeforeMove;
+
+    private static ExecutorService executor;
+
+
+    public GameAI(int gridSize, GameMode mode, GameController controller) {
+        if (mode == GameMode.VS_PLAYER) {
+            throw new IllegalArgumentException("No AI possible in player vs player matches.");
+        }
+        this.gridSize = gridSize;
+        this.gridUnderAttack = new int[this.gridSize][this.gridSize];
+        this.mode = mode;
+        this.controller = controller;
+
+        //initialize local grid
+        for(int i = 0; i < this.gridSize*this.gridSize; i++) {
+            this.gridUnderAttack[i / this.gridSize][i % this.gridSize] = Cell.UNKNOWN.val;
+        }
+        this.frontier = new CellFrontier(this.gridSize);
+        this.openHits = new int[this.gridSize * this.gridSize];
+
+        //the random numbers are drawn from the game, see GameController.setSeed()
+        this.ranGen = controller.getRandom();
+        this.hasAIWon = false;
+    }
+
+    /**
+     * Makes the move of the AI on the calling thread and switches the players afterwards.
+     */
+    public synchronized void makeMove() {
+        applyMove(chooseTarget());
+    }
+
+    /**
+     * Chooses the target of the next move on the worker thread of the AI. The callback is called
+     * on that thread with the chosen cell, which should be passed to applyMove() afterwards.
+     * Cancelling the returned future interrupts the computation.
+     * @param callback Callback receiving the index of the chosen cell
+     * @return Future of the computation
+     */
+    public Future<?> chooseTargetAsync(final MoveCallback callback) {
+        return getExecutor().submit(new Runnable() {
+            @Override
+            public void run() {
+                int cell = chooseTarget();
+                if (!Thread.currentThread().isInterrupted())
+                    callback.onTargetChosen(cell);
+            }
+        });
+    }
+
+    /**
+     * Callback for chooseTargetAsync(). It is called on the worker thread of the AI.
+     */
+    public interface MoveCallback {
+        void onTargetChosen(int cell);
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "GameAI");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Chooses the cell to attack next according to the difficulty level. The game is not changed,
+     * so this method may run on a background thread while the UI shows the grids.
+     * @return Index of the chosen cell, i.e. row * gridSize + col
+     */
+    public synchronized int chooseTarget() {
+        publishRandomState();
+        if(this.mode == GameMode.VS_AI_HARD) {
+            return chooseSmartTarget();
+        } else if(this.mode == GameMode.VS_AI_EXPERT) {
+            return chooseDensityTarget();
+        } else if(this.mode == GameMode.VS_AI_MASTER) {
+            return chooseSamplingTarget();
+        }
+        return chooseRandomTarget();
+    }
+
+    /**
+     * Attacks the given cell, updates the knowledge of the AI and switches the players.
+     * @param cell Index of the cell, i.e. row * gridSize + col
+     */
+    public synchronized void applyMove(int cell) {
+        int col = cell % this.gridSize;
+        int row = cell / this.gridSize;
+
+        //attack opponent and update local grid
+        boolean isHit = this.controller.makeMove(true, col, row);
+        this.frontier.remove(cell);
+
+        if ( isHit ) {
+            this.gridUnderAttack[col][row] = Cell.SHIP.val;
+
+            if (this.mode == GameMode.VS_AI_HARD) {
+                updateOpenHits(col, row);
+            }
+
+            // Check if the AI has won set hasAIWon to true in that case.
+            if (this.controller.gridUnderAttack().getShipSet().allShipsDestroyed() ){
+                this.hasAIWon = true;
+            }
+        } else {
+            this.gridUnderAttack[col][row] = Cell.WATER.val;
+        }
+
+        this.controller.switchPlayers();
+        synchronized (this.randomStateLock) {
+            this.movePending = false;
+        }
+    }
+
+    /*
+     Remembers the state of the random number generator before the first number of the move is
+     drawn, so the state of the game can be written while the move is chosen in the background.
+      */
+    private void publishRandomState() {
+        synchronized (this.randomStateLock) {
+            if (!this.movePending) {
+                this.randomStateBeforeMove = this.ranGen.getState();
+                this.movePending = true;
+            }
+        }
+    }
+
+    /*
+     Returns the state of the random number generator of the game between the moves of the AI. If
+     a move has been started but not applied yet, the state before that move is returned, such that
+     the restored game chooses the same move again. Does not wait for the move.
+      */
+    long getRandomState() {
+        synchronized (this.randomStateLock) {
+            return this.movePending ? this.randomStateBeforeMove : this.ranGen.getState();
+        }
+    }
+
+    /**
+     * Sets the compute budget per move. It is used by the master AI, the other difficulty levels
+     * are much faster anyway.
+     */
+    public void setBudget(AIBudget budget) {
+        this.budget = budget;
+    }
+
+    private int chooseRandomTarget(){
+        //get random coordinate to attack
+        return this.frontier.pickRandom(this.ranGen);
+    }
+
+    /*
+     Fires at the ends of a line of hits if one has been found, otherwise next to the most recent
+     hit whose ship has not been destroyed yet. If there is no such hit, the AI searches.
+      */
+    private int chooseSmartTarget() {
+        int count = 0;
+        for (int i = this.openHitCount - 1; i >= 0 && count == 0; i--) {
+            count = collectLineTargets(this.openHits[i]);
+        }
+        // The hits do not form a line or its ends have been attacked, because ships touch
+        for (int i = this.openHitCount - 1; i >= 0 && count == 0; i--) {
+            count = collectNeighbourTargets(this.openHits[i]);
+        }
+        if (count == 0)
+            return chooseSearchingTarget();
+        return this.targets[this.ranGen.nextInt(count)];
+    }
+
+    /*
+     Stores the unknown cells at both ends of the lines of hits through the given hit in targets.
+     Returns the number of stored cells.
+      */
+    private int collectLineTargets(int cell) {
+        int col = cell % this.gridSize;
+        int row = cell / this.gridSize;
+        int count = 0;
+        for (int axis = 0; axis < 2; axis++) {
+            int colStep = axis == 0 ? 1 : 0;
+            int rowStep = 1 - colStep;
+            if (!isOpenHit(col + colStep, row + rowStep) && !isOpenHit(col - colStep, row - rowStep))
+                continue;
+
+            for (int direction = -1; direction <= 1; direction += 2) {
+                int endCol = col;
+                int endRow = row;
+                while (isOpenHit(endCol + direction * colStep, endRow + direction * rowStep)) {
+                    endCol += direction * colStep;
+                    endRow += direction * rowStep;
+                }
+                endCol += direction * colStep;
+                endRow += direction * rowStep;
+                if (isValidTarget(endCol, endRow))
+                    this.targets[count++] = endRow * this.gridSize + endCol;
+            }
+        }
+        return count;
+    }
+
+    /*
+     Stores the unknown cells next to the given hit in targets. Returns the number of stored cells.
+      */
+    private int collectNeighbourTargets(int cell) {
+        int col = cell % this.gridSize;
+        int row = cell / this.gridSize;
+        int count = 0;
+        if (isValidTarget(col - 1, row)) this.targets[count++] = cell - 1;
+        if (isValidTarget(col + 1, row)) this.targets[count++] = cell + 1;
+        if (isValidTarget(col, row - 1)) this.targets[count++] = cell - this.gridSize;
+        if (isValidTarget(col, row + 1)) this.targets[count++] = cell + this.gridSize;
+        return count;
+    }
+
+    /*
+     Adds the hit to the open hits. If it has destroyed a ship, the cells of that ship are removed
+     from the open hits instead. If ships may not touch, the cells which cannot contain a ship
+     anymore are marked as water, such that the AI does not waste shots on them.
+      */
+    private void updateOpenHits(int col, int row) {
+        GameShipSet shipSet = this.controller.gridUnderAttack().getShipSet();
+        boolean shipsMayTouch = this.controller.getShipsMayTouch();
+        GameShip ship = shipSet.getShipOnCell(row * this.gridSize + col);
+
+        if (!ship.isDestroyed()) {
+            this.openHits[this.openHitCount++] = row * this.gridSize + col;
+            if (!shipsMayTouch) {
+                // The diagonal neighbours of a hit belong to no ship
+                markAsWater(col - 1, row - 1);
+                markAsWater(col + 1, row - 1);
+                markAsWater(col - 1, row + 1);
+                markAsWater(col + 1, row + 1);
+            }
+            return;
+        }
+
+        int kept = 0;
+        for (int i = 0; i < this.openHitCount; i++) {
+            if (shipSet.getShipOnCell(this.openHits[i]) != ship)
+                this.openHits[kept++] = this.openHits[i];
+        }
+        this.openHitCount = kept;
+
+        if (!shipsMayTouch) {
+            for (GameCell shipCell : ship.getShipsCells()) {
+                for (int neighbourCol = shipCell.getCol() - 1; neighbourCol <= shipCell.getCol() + 1; neighbourCol++) {
+                    for (int neighbourRow = shipCell.getRow() - 1; neighbourRow <= shipCell.getRow() + 1; neighbourRow++) {
+                        markAsWater(neighbourCol, neighbourRow);
+                    }
+                }
+            }
+        }
+    }
+
+    private void markAsWater(int col, int row) {
+        if (isValidTarget(col, row)) {
+            this.gridUnderAttack[col][row] = Cell.WATER.val;
+            this.frontier.remove(row * this.gridSize + col);
+        }
+    }
+
+    private boolean isOpenHit(int col, int row) {
+        if (col < 0 || col >= this.gridSize || row < 0 || row >= this.gridSize)
+            return false;
+        if (this.gridUnderAttack[col][row] != Cell.SHIP.val)
+            return false;
+        GameShipSet shipSet = this.controller.gridUnderAttack().getShipSet();
+        return !shipSet.getShipOnCell(row * this.gridSize + col).isDestroyed();
+    }
+
+    private int chooseSearchingTarget(){
+        //get random coordinate to attack; choose no adjacent coordinates as long as possible
+        return this.frontier.pickRandom(1, this.ranGen);
+    }
+
+    /*
+     Chooses the cell covered by the most legal positions of the remaining ships, see
+     ProbabilityDensity.
+      */
+    private int chooseDensityTarget() {
+        int cellCount = this.gridSize * this.gridSize;
+        if (this.densityScores == null) {
+            this.densityWater = Bitboard.create(cellCount);
+            this.densityHits = Bitboard.create(cellCount);
+            this.densityExcluded = Bitboard.create(cellCount);
+            this.densityScores = new int[cellCount];
+        }
+        long[] water = this.densityWater;
+        long[] hits = this.densityHits;
+        long[] excluded = this.densityExcluded;
+        Arrays.fill(water, 0);
+        Arrays.fill(hits, 0);
+        Arrays.fill(excluded, 0);
+        collectKnowledge(water, hits, excluded);
+
+        this.controller.gridUnderAttack().getShipSet().getRemainingShipCount(this.remainingShips);
+        ProbabilityDensity.computeScores(this.gridSize, this.remainingShips, water, hits, this.densityScores);
+        int cell = ProbabilityDensity.chooseCell(this.densityScores, excluded, this.ranGen);
+        if (cell == -1)
+            return chooseRandomTarget();
+        return cell;
+    }
+
+    /*
+     Chooses the cell covered most often by random layouts of the remaining ships which are
+     consistent with the shots so far, see MonteCarloTargeting. If there are only a few such
+     layouts, all of them are enumerated instead, see EndgameSolver. The first moves are taken
+     from the OpeningBook if there is one for the fleet.
+      */
+    private int chooseSamplingTarget() {
+        int cellCount = this.gridSize * this.gridSize;
+        long[] water = Bitboard.create(cellCount);
+        long[] hits = Bitboard.create(cellCount);
+        long[] excluded = Bitboard.create(cellCount);
+        collectKnowledge(water, hits, excluded);
+
+        int[] remainingShips = this.controller.gridUnderAttack().getShipSet().getRemainingShipCount();
+        int bookCell = chooseBookTarget(remainingShips);
+        if (bookCell != -1)
+            return bookCell;
+        if (this.budget.getEndgameCutoff() > 0) {
+            EndgameSolver solver = new EndgameSolver(this.gridSize, this.controller.getShipsMayTouch());
+            int cell = solver.chooseCell(remainingShips, water, hits, excluded, this.budget.getEndgameCutoff(), this.ranGen);
+            if (cell != -1)
+                return cell;
+        }
+        MonteCarloTargeting targeting = new MonteCarloTargeting(this.gridSize, this.controller.getShipsMayTouch());
+        int cell = targeting.chooseCell(remainingShips, water, hits, excluded,
+                this.budget.getSamples(), this.budget.getTimeBudget(), this.ranGen.nextLong());
+        if (cell == -1)
+            return chooseDensityTarget();
+        return cell;
+    }
+
+    /*
+     Returns the move of the opening book after the shots so far or -1 if the game has left the
+     book or the budget allows no more book moves. The book only applies as long as no ship has
+     been destroyed, so the remaining ships have to form the fleet of the book.
+      */
+    private int chooseBookTarget(int[] remainingShips) {
+        OpeningBook book = OpeningBook.get(this.gridSize, remainingShips, this.controller.getShipsMayTouch());
+        if (book == null)
+            return -1;
+
+        long hash = 0;
+        int shots = 0;
+        for (int col = 0; col < this.gridSize; col++) {
+            for (int row = 0; row < this.gridSize; row++) {
+                if (this.gridUnderAttack[col][row] != Cell.UNKNOWN.val) {
+                    hash ^= OpeningBook.hashShot(row * this.gridSize + col, this.gridUnderAttack[col][row] == Cell.SHIP.val);
+                    shots++;
+                }
+            }
+        }
+        if (shots >= this.budget.getBookDepth())
+            return -1;
+        int cell = book.lookup(hash);
+        if (cell == -1 || cell >= this.gridSize * this.gridSize
+                || !isValidTarget(cell % this.gridSize, cell / this.gridSize))
+            return -1;
+        return cell;
+    }
+
+    /*
+     Collects the knowledge about the grid under attack on bitboards. Destroyed ships are known to
+     both players, so their cells, and their adjacent cells if ships may not touch, cannot contain
+     another ship.
+     water: cells which cannot contain a remaining ship
+     hits: hit cells whose ship has not been destroyed yet
+     excluded: cells which should not be attacked
+      */
+    private void collectKnowledge(long[] water, long[] hits, long[] excluded) {
+        this.controller.gridUnderAttack().getShipSet().addDestroyedShipsTo(water);
+        for (int col = 0; col < this.gridSize; col++) {
+            for (int row = 0; row < this.gridSize; row++) {
+                int cell = row * this.gridSize + col;
+                if (this.gridUnderAttack[col][row] == Cell.WATER.val) {
+                    Bitboard.set(water, cell);
+                } else if (this.gridUnderAttack[col][row] == Cell.SHIP.val) {
+                    Bitboard.set(excluded, cell);
+                    if (!Bitboard.get(water, cell))
+                        Bitboard.set(hits, cell);
+                }
+            }
+        }
+        for (int w = 0; w < excluded.length; w++) excluded[w] |= water[w];
+    }
+
+    private boolean isValidTarget(int col, int row) {
+        if (col < 0 || col >= this.gridSize || row < 0 || row >= this.gridSize)
+            return false;
+        if (this.gridUnderAttack[col][row] != Cell.UNKNOWN.val)
+            return false;
+        return true;
+    }
+
+    /*
+     The whole state of the AI is written, so it continues a hunt after the game has been
+     restored. Everything is restored as it was written, nothing has to be recomputed. The random
+     numbers are drawn from the game, which writes the state of the generator. Choosing a move does
+     not change anything written here, so the state is not locked against a move in the background.
+      */
+    void writeState(DataOutput out) throws IOException {
+        int cellCount = this.gridSize * this.gridSize;
+        int[] cells = new int[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            cells[i] = this.gridUnderAttack[i % this.gridSize][i / this.gridSize];
+        }
+        GameState.writeTwoBitCells(out, cells, cellCount);
+        out.writeBoolean(this.hasAIWon);
+        out.writeShort(this.openHitCount);
+        for (int i = 0; i < this.openHitCount; i++) {
+            out.writeByte(this.openHits[i]);
+        }
+        this.frontier.writeState(out);
+        out.writeInt(this.budget.getSamples());
+        out.writeLong(this.budget.getTimeBudget());
+        out.writeInt(this.budget.getEndgameCutoff());
+        out.writeByte(Math.min(this.budget.getBookDepth(), 255));//no book is deeper than the grid
+    }
+
+    GameAI(DataInput in, int gridSize, GameMode mode) throws IOException {
+        this.gridSize = gridSize;
+        this.mode = mode;
+        int cellCount = this.gridSize * this.gridSize;
+        int[] cells = new int[cellCount];
+        GameState.readTwoBitCells(in, cells, cellCount);
+        this.gridUnderAttack = new int[this.gridSize][this.gridSize];
+        for (int i = 0; i < cellCount; i++) {
+            this.gridUnderAttack[i % this.gridSize][i / this.gridSize] = cells[i];
+        }
+        this.hasAIWon = in.readBoolean();
+        this.openHitCount = in.readUnsignedShort();
+        this.openHits = new int[cellCount];
+        for (int i = 0; i < this.openHitCount; i++) {
+            this.openHits[i] = in.readUnsignedByte();
+        }
+        this.frontier = new CellFrontier(in, this.gridSize);
+        this.budget = new AIBudget(in.readInt(), in.readLong(), in.readInt(), in.readUnsignedByte());
+    }
+
+    public void setController(GameController controller) {
+        this.controller = controller;
+        this.ranGen = controller.getRandom();
+    }
+
+    public boolean isAIWinner(){
+        return this.hasAIWon;
+    }
+}
\ No newline at end of file
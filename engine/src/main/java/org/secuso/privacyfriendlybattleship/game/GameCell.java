@@ -0,0 +1,109 @@
+/*
+    Copyright 2017 Alexander Müller, Ali Kalsen
+
+    This file is part of Privacy Friendly Battleships.
+
+    Privacy Friendly Battleships is free software: you can redistribute
+    it and/or modify it under the terms of the GNU General Public License
+    as published by the Free Software Foundation, either version 3 of the
+    License, or (at your option) any later version.
+
+    Privacy Friendly Battleships is distributed in the hope that it will
+    be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+    of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with Foobar.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import static java.lang.Math.max;
+
+/**
+ * This class represents a cell of an battleships grid. A grid of size N
+ * consists of N*N cells, each of which can be either water or part of a
+ * ship. A cell does not hold any state itself, it is a view on the
+ * bitboards of its grid. Two cells are equal if they have the same
+ * coordinates.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class GameCell {
+
+    private final int col;//Column of the Cell
+    private final int row;//Row of the Cell
+    private final GameGrid grid;
+
+
+    public GameCell(int col, int row, GameGrid grid) {
+        this.col = col;
+        this.row = row;
+        this.grid = grid;
+    }
+
+    public int getCol() {
+        return col;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public GameGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Returns the index of this cell in the bitboards of its grid.
+     * @return Index of the cell
+     */
+    public int getIndex() {
+        return grid.cellIndex(col, row);
+    }
+
+    public boolean isShip() {
+        return grid.isShip(col, row);
+    }
+
+    public boolean isHit() {
+        return grid.isHit(col, row);
+    }
+
+    public void setShip(boolean ship) {
+        grid.setShip(col, row, ship);
+    }
+
+    public void setHit(boolean hit) {
+        grid.setHit(col, row, hit);
+    }
+
+    /**
+     * Returns true if the cells are adjacent to each other or have the same coordinates and false
+     * if they have at least one cell in between. Cells diagonal to each other are considered
+     * adjacent.
+     * @param other Cell to compare to
+     * @return True if the the given cell is adjacent
+     */
+    public boolean isNextTo(GameCell other) {
+        int distance = max( Math.abs(this.col - other.getCol() ), Math.abs(this.row - other.getRow() ) );
+        if (distance > 1)
+            return false;
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof GameCell)) return false;
+        GameCell cell = (GameCell) other;
+        return this.col == cell.col && this.row == cell.row;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.col + this.row;
+    }
+}
@@ -1,13 +1,14 @@
 package org.secuso.privacyfriendlybattleship.game;
 
-import android.os.Parcel;
-import android.os.Parcelable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 /**
  * Created by Alexander Müller on 16.12.2016.
  */
 
-public class GameController implements Parcelable {
+public class GameController {
 
     private int attemptsPlayerOne;
     private int attemptsPlayerTwo;
@@ -21,6 +22,8 @@ public class GameController implements Parcelable {
     private boolean currentPlayer;//false if first players turn, true if second players turn
     private GameAI opponentAI;
     private int[] shipCount;
+    private long seed;
+    private StatefulRandom ranGen;//the only source of randomness of the game, see setSeed()
 
     // Amount of ships for standard grid sizes.
     private final static int[] SHIPCOUNTFIVE = {2,1,0,0};
@@ -28,6 +31,8 @@ public class GameController implements Parcelable {
 
 
     public GameController(GameMode gameMode, int gridSize, int[] shipCount) {
+        this.ranGen = new StatefulRandom();
+        setSeed(this.ranGen.nextLong());
         this.gridSize = gridSize;
         this.mode = gameMode;
         this.currentPlayer = false;
@@ -36,7 +41,7 @@ public class GameController implements Parcelable {
         this.gridFirstPlayer = new GameGrid(gridSize, this.shipCount);
         this.gridSecondPlayer = new GameGrid(gridSize, this.shipCount);
 
-        if (this.mode == GameMode.VS_AI_EASY || this.mode == GameMode.VS_AI_HARD) {
+        if (this.mode.isVsAI()) {
             this.opponentAI = new GameAI(this.gridSize, this.mode, this);
         } else if (this.mode == GameMode.VS_PLAYER) {
             this.opponentAI = null;
@@ -57,6 +62,8 @@ public class GameController implements Parcelable {
             throw new IllegalArgumentException("Provide ship-count for custom game-mode.");
         if (gridSize != 5 && gridSize != 10)
             throw new IllegalArgumentException("Provide ship-count for custom game-size.");
+        this.ranGen = new StatefulRandom();
+        setSeed(this.ranGen.nextLong());
         this.gridSize = gridSize;
         this.currentPlayer = false;
         this.mode = mode;
@@ -74,7 +81,7 @@ public class GameController implements Parcelable {
                 break;
         }
 
-        if (this.mode == GameMode.VS_AI_EASY || this.mode == GameMode.VS_AI_HARD) {
+        if (this.mode.isVsAI()) {
             this.opponentAI = new GameAI(this.gridSize, this.mode, this);
         } else if (this.mode == GameMode.VS_PLAYER) {
             this.opponentAI = null;
@@ -93,12 +100,51 @@ public class GameController implements Parcelable {
         return gridSecondPlayer;
     }
 
+    /**
+     * Defines whether ships may be placed next to each other in this game. Has to be set before
+     * the ships are placed.
+     * @param shipsMayTouch True if ships may touch each other, false if they need at least one
+     *                      cell in between
+     */
+    public void setShipsMayTouch(boolean shipsMayTouch) {
+        this.gridFirstPlayer.getShipSet().setShipsMayTouch(shipsMayTouch);
+        this.gridSecondPlayer.getShipSet().setShipsMayTouch(shipsMayTouch);
+    }
+
+    public boolean getShipsMayTouch() {
+        return this.gridFirstPlayer.getShipSet().getShipsMayTouch();
+    }
+
     /**
      * Places all ships for both players randomly, resulting in a legit placement to start the game.
+     * @return True if the ships have been placed, false if the ship-count does not fit on the grid
+     */
+    public boolean placeAllShips() {
+        return this.getGridFirstPlayer().getShipSet().placeShipsRandomly(this.ranGen) &&
+                this.getGridSecondPlayer().getShipSet().placeShipsRandomly(this.ranGen);
+    }
+
+    /**
+     * Seeds the random number generator of this game, which places the ships and drives the AI.
+     * Games with the same seed, fleet and moves of the players are identical, so a game can be
+     * replayed from its seed. The master AI only replays exactly if its budget has no time limit,
+     * see AIBudget.withoutTimeLimit(). Has to be called before the ships are placed.
+     * @param seed Seed of the game
      */
-    public void placeAllShips() {
-        this.getGridFirstPlayer().getShipSet().placeShipsRandomly();
-        this.getGridSecondPlayer().getShipSet().placeShipsRandomly();
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.ranGen.setSeed(seed);
+    }
+
+    /**
+     * Returns the seed of this game, which is random unless it has been set by setSeed().
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    StatefulRandom getRandom() {
+        return ranGen;
     }
 
     /**
@@ -113,17 +159,17 @@ public class GameController implements Parcelable {
             throw new IllegalArgumentException("It is the other players turn.");
         }
 
-        GameCell cellUnderAttack = this.gridUnderAttack().getCell(col, row);
-        if ( cellUnderAttack.isHit() ) {
+        GameGrid grid = this.gridUnderAttack();
+        if ( grid.isHit(col, row) ) {
             throw new IllegalArgumentException("This cell has already been attacked");
         }
 
         //mark cell hit
-        cellUnderAttack.setHit(true);
+        grid.setHit(col, row, true);
         increaseAttempts();
 
         //return if move was a hit
-        if( cellUnderAttack.isShip() ) return true;
+        if( grid.isShip(col, row) ) return true;
         return false;
     }
 
@@ -152,17 +198,31 @@ public class GameController implements Parcelable {
         return gridSecondPlayer;
     }
 
+    /**
+     * Returns true if the ships can be placed on the grid of this game. The result is cached, see
+     * FleetFeasibility. If the ship-count has not been checked before, this method might take a
+     * while, so the UI should use checkShipCountLegitAsync() instead.
+     * @param shipCount Amount of ships of the sizes 2, 3, 4 and 5
+     * @return True if there is a legit placement of the ships, false if there is none or the
+     * search has given up
+     */
     public boolean isShipCountLegit(int[] shipCount){
-        // The current bound for the numer of cells covered by the ships is set to the half of the
-        // total amount of grid cells, such that the probability of randomly hitting a ship is at most 1/2.
-        int bound =  (int) Math.floor(getGridSize() * getGridSize() * 2 / 5);
-        int coveredGridCells = 2 * shipCount[0] + 3 * shipCount[1] + 4 * shipCount[2] + 5 * shipCount[3];
-        if (coveredGridCells > bound){
-            return false;
-        }
-        else{
-            return true;
-        }
+        return FleetFeasibility.isFeasible(getGridSize(), shipCount, getShipsMayTouch());
+    }
+
+    /**
+     * Returns the cached result of isShipCountLegit() or null if the ship-count has not been
+     * checked yet.
+     */
+    public Boolean getCachedShipCountLegit(int[] shipCount){
+        return FleetFeasibility.getCachedResult(getGridSize(), shipCount, getShipsMayTouch());
+    }
+
+    /**
+     * Checks the ship-count on a background thread. The callback is called on that thread.
+     */
+    public void checkShipCountLegitAsync(int[] shipCount, FleetFeasibility.Callback callback){
+        FleetFeasibility.checkAsync(getGridSize(), shipCount, getShipsMayTouch(), callback);
     }
 
     public int getGridSize() {
@@ -179,37 +239,66 @@ public class GameController implements Parcelable {
 
     public boolean getCurrentPlayer(){ return this.currentPlayer;}
 
-    @Override
-    public int describeContents() { return 0; }
-
-    @Override
-    public void writeToParcel(Parcel out, int flags) {
-        out.writeInt(this.gridSize);
-        out.writeString(this.mode.name());
-        out.writeBooleanArray( new boolean[] {this.currentPlayer} );
-        out.writeTypedArray( new GameGrid[] {this.gridFirstPlayer, this.gridSecondPlayer}, 0 );
-        out.writeTypedArray(new GameAI[] { this.opponentAI }, 0 );
-    }
-
-    public static final Parcelable.Creator<GameController> CREATOR = new Parcelable.Creator<GameController>() {
-        public GameController createFromParcel(Parcel in) {
-            return new GameController(in);
-        }
-
-        public GameController[] newArray(int size) {
-            return new GameController[size];
+    /**
+     * Writes the state of the game in the compact binary format described in GameState, e.g. into
+     * a Parcel or a file. It is restored by GameController(DataInput). The timers and attempts are
+     * not part of the state. If the AI is choosing a move in the background, the state is written
+     * as it was before that move without waiting for it, so the restored game chooses the same move.
+     * @throws IllegalStateException if the grid is larger than the format supports
+     */
+    public void writeState(DataOutput out) throws IOException {
+        if (this.gridSize > GameState.MAX_GRID_SIZE)
+            throw new IllegalStateException("The state of grids larger than " + GameState.MAX_GRID_SIZE + " cannot be written.");
+        int[] shipCount = this.gridFirstPlayer.getShipSet().getShipCount();
+
+        out.writeInt(GameState.MAGIC);
+        out.writeByte(GameState.FORMAT_VERSION);
+        out.writeByte(this.gridSize);
+        out.writeByte(this.mode.ordinal());
+        out.writeByte((this.currentPlayer ? 1 : 0) | (this.opponentAI != null ? 2 : 0)
+                | (this.gridFirstPlayer.getShipSet().getShipsMayTouch() ? 4 : 0));
+        for (int count : shipCount) out.writeByte(count);
+        out.writeLong(this.seed);
+        //48 bits, the AI may be drawing from the generator for a move which is not applied yet
+        long state = this.opponentAI == null ? this.ranGen.getState() : this.opponentAI.getRandomState();
+        out.writeShort((int) (state >>> 32));
+        out.writeInt((int) state);
+
+        this.gridFirstPlayer.writeState(out);
+        this.gridSecondPlayer.writeState(out);
+        if (this.opponentAI != null) {
+            this.opponentAI.writeState(out);
         }
-    };
-
-    private GameController(Parcel in) {
-        this.gridSize = in.readInt();
-        this.mode = GameMode.valueOf( in.readString() );
-        this.currentPlayer = in.createBooleanArray()[0];
-        GameGrid[] grids = in.createTypedArray(GameGrid.CREATOR);
-        this.gridFirstPlayer = grids[0];
-        this.gridSecondPlayer = grids[1];
+    }
 
-        this.opponentAI = in.createTypedArray(GameAI.CREATOR)[0];
+    /**
+     * Restores a game written by writeState().
+     * @throws IOException if the input cannot be read
+     * @throws IllegalArgumentException if the input does not contain a game or has been written
+     * by an incompatible version
+     */
+    public GameController(DataInput in) throws IOException {
+        if (in.readInt() != GameState.MAGIC)
+            throw new IllegalArgumentException("The input does not contain a game.");
+        int version = in.readUnsignedByte();
+        if (version != GameState.FORMAT_VERSION)
+            throw new IllegalArgumentException("Unsupported version of the game state: " + version);
+
+        this.gridSize = in.readUnsignedByte();
+        this.mode = GameMode.values()[in.readUnsignedByte()];
+        int flags = in.readUnsignedByte();
+        this.currentPlayer = (flags & 1) != 0;
+        boolean shipsMayTouch = (flags & 4) != 0;
+        this.shipCount = new int[4];
+        for (int i = 0; i < this.shipCount.length; i++) this.shipCount[i] = in.readUnsignedByte();
+        this.seed = in.readLong();
+        this.ranGen = new StatefulRandom();
+        long state = (long) in.readUnsignedShort() << 32;
+        this.ranGen.setState(state | (in.readInt() & 0xFFFFFFFFL));
+
+        this.gridFirstPlayer = new GameGrid(in, this.gridSize, this.shipCount, shipsMayTouch);
+        this.gridSecondPlayer = new GameGrid(in, this.gridSize, this.shipCount, shipsMayTouch);
+        this.opponentAI = (flags & 2) != 0 ? new GameAI(in, this.gridSize, this.mode) : null;
         if(this.opponentAI != null) {
             this.opponentAI.setController(this);
         }
@@ -252,7 +341,7 @@ public class GameController implements Parcelable {
     }
 
     public int getTime(){
-        if(getMode() == GameMode.VS_AI_EASY || getMode() == GameMode.VS_AI_HARD){
+        if(getMode().isVsAI()){
             return this.timePlayerOne.getTime();
         }
         else{
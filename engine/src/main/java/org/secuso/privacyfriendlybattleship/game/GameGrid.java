@@ -0,0 +1,179 @@
+/*
+    Copyright 2017 Alexander Müller, Ali Kalsen
+
+    This file is part of Privacy Friendly Battleships.
+
+    Privacy Friendly Battleships is free software: you can redistribute
+    it and/or modify it under the terms of the GNU General Public License
+    as published by the Free Software Foundation, either version 3 of the
+    License, or (at your option) any later version.
+
+    Privacy Friendly Battleships is distributed in the hope that it will
+    be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+    of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with Foobar.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class represents a players grid for the battleships game. It
+ * provides access to its cells or its set of ships and is assigned to
+ * one of the two players (or the AI) of the game. The state of the cells
+ * is stored in two bitboards, one for the ships and one for the hits,
+ * which are accessed through the GameCell views.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class GameGrid {
+
+    // GameGrids needed for the main activity and quick start
+    private final static int SIZE_5x5 = 5;
+    private final static int SIZE_10x10 = 10;
+
+
+    //private final int resIDString;
+    private static List<Integer> validSizes = new LinkedList<>();
+
+    static{
+        validSizes.add(SIZE_5x5);
+        validSizes.add(SIZE_10x10);
+    }
+
+    private long[] shipLayer;//bit is set if the cell contains a ship
+    private long[] hitLayer;//bit is set if the cell was hit
+    private int size;
+    private GameShipSet shipSet;
+
+    public GameGrid(int size, int[] shipCount) {
+        this.size = size;
+        this.shipLayer = Bitboard.create(size * size);
+        this.hitLayer = Bitboard.create(size * size);
+        this.shipSet = new GameShipSet(this, shipCount[0], shipCount[1], shipCount[2], shipCount[3]);
+    }
+
+    /**
+     * Returns the cell at the given row and column. Rows and columns start with 0. The returned
+     * cell is a view on the state of this grid.
+     * @param col Column of the cell to be returned
+     * @param row Row of the cell to be returned
+     * @return The cell at the given row and column
+     */
+    public GameCell getCell (int col, int row) {
+        checkBounds(col, row);
+        return new GameCell(col, row, this);
+    }
+
+    private void checkBounds(int col, int row) {
+        if(col >= size || row >= size || col < 0 || row < 0) {
+            throw new IllegalArgumentException("Column or row exceeds the limits of the grid.");
+        }
+    }
+
+    /**
+     * Returns the index of the given cell in the bitboards of this grid.
+     * @param col Column of the cell
+     * @param row Row of the cell
+     * @return Index of the cell
+     */
+    public int cellIndex(int col, int row) {
+        return row * this.size + col;
+    }
+
+    public boolean isShip(int col, int row) {
+        checkBounds(col, row);
+        return Bitboard.get(this.shipLayer, cellIndex(col, row));
+    }
+
+    public boolean isHit(int col, int row) {
+        checkBounds(col, row);
+        return Bitboard.get(this.hitLayer, cellIndex(col, row));
+    }
+
+    void setShip(int col, int row, boolean ship) {
+        Bitboard.set(this.shipLayer, cellIndex(col, row), ship);
+    }
+
+    void setHit(int col, int row, boolean hit) {
+        int index = cellIndex(col, row);
+        if (Bitboard.get(this.hitLayer, index) == hit) {
+            return;
+        }
+        Bitboard.set(this.hitLayer, index, hit);
+        if (Bitboard.get(this.shipLayer, index)) {
+            this.shipSet.updateHitCounters(index, hit);
+        }
+    }
+
+    /**
+     * Returns the bitboard of the cells containing a ship. The array is not copied and must not be
+     * modified.
+     * @return Bitboard of the ship cells
+     */
+    public long[] getShipLayer() {
+        return shipLayer;
+    }
+
+    /**
+     * Returns the bitboard of the cells that have been hit. The array is not copied and must not be
+     * modified.
+     * @return Bitboard of the hit cells
+     */
+    public long[] getHitLayer() {
+        return hitLayer;
+    }
+
+    public GameShipSet getShipSet() {
+        return shipSet;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public static List<Integer> getValidSizes(){
+        return validSizes;
+    }
+
+    public GameCell getRandomCell(Random ranGen) {
+        return this.getCell( ranGen.nextInt(this.size), ranGen.nextInt(this.size) );
+    }
+
+    void writeState(DataOutput out) throws IOException {
+        int cellCount = this.size * this.size;
+        int[] cells = new int[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            cells[i] = (Bitboard.get(this.shipLayer, i) ? 1 : 0) | (Bitboard.get(this.hitLayer, i) ? 2 : 0);
+        }
+        GameState.writeTwoBitCells(out, cells, cellCount);
+
+        this.shipSet.writeState(out);
+    }
+
+    GameGrid(DataInput in, int size, int[] shipCount, boolean shipsMayTouch) throws IOException {
+        this.size = size;
+        int cellCount = size * size;
+        this.shipLayer = Bitboard.create(cellCount);
+        this.hitLayer = Bitboard.create(cellCount);
+        int[] cells = new int[cellCount];
+        GameState.readTwoBitCells(in, cells, cellCount);
+        for (int i = 0; i < cellCount; i++) {
+            Bitboard.set(this.shipLayer, i, (cells[i] & 1) != 0);
+            Bitboard.set(this.hitLayer, i, (cells[i] & 2) != 0);
+        }
+
+        this.shipSet = new GameShipSet(in, size, shipCount, shipsMayTouch);
+        this.shipSet.recreateShipSet(this);
+    }
+}
@@ -20,30 +20,25 @@
 
 package org.secuso.privacyfriendlybattleship.game;
 
-import android.support.annotation.DrawableRes;
-import android.support.annotation.StringRes;
-
-import org.secuso.privacyfriendlybattleship.R;
-
 import java.util.LinkedList;
 import java.util.List;
 
 /**
  * This file represents the mode for a battleships game. It is used to
  * define whether the game is played in the two player mode or against the
- * AI in one of two difficulty levels.
+ * AI in one of four difficulty levels.
  *
  * @author Alexander Müller, Ali Kalsen
  */
 
 public enum GameMode {
-    VS_PLAYER(R.string.mode_two_player, R.drawable.ic_people_black_24px),
-    VS_AI_EASY(R.string.mode_vs_cpu_easy, R.drawable.ic_cpu_easy),
-    VS_AI_HARD(R.string.mode_vs_cpu_hard, R.drawable.ic_cpu_hard),
-    CUSTOM(R.string.mode_custom, R.drawable.ic_people_black_24px);
+    VS_PLAYER,
+    VS_AI_EASY,
+    VS_AI_HARD,
+    VS_AI_EXPERT,
+    VS_AI_MASTER,
+    CUSTOM;
 
-    private final int resIDString;
-    private final int resIDImage;
     private static List<GameMode> validTypes = new LinkedList<>();
 
 
@@ -51,20 +46,16 @@ public enum GameMode {
         validTypes.add(VS_PLAYER);
         validTypes.add(VS_AI_EASY);
         validTypes.add(VS_AI_HARD);
+        validTypes.add(VS_AI_EXPERT);
+        validTypes.add(VS_AI_MASTER);
     }
 
 
-    GameMode(@StringRes int resIDString, @DrawableRes int resIDImage){
-        this.resIDString = resIDString;
-        this.resIDImage = resIDImage;
-    }
-
-    public int getStringResID() {
-        return resIDString;
-    }
-
-    public int getImageResID(){
-        return resIDImage;
+    /**
+     * Returns true if the game is played against the AI.
+     */
+    public boolean isVsAI() {
+        return this == VS_AI_EASY || this == VS_AI_HARD || this == VS_AI_EXPERT || this == VS_AI_MASTER;
     }
 
     public static List<GameMode> getValidTypes(){
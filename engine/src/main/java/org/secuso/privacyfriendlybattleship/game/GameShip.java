@@ -19,9 +19,8 @@
 
 package org.secuso.privacyfriendlybattleship.game;
 
-import android.os.Parcel;
-import android.os.Parcelable;
-
+import java.io.DataOutput;
+import java.io.IOException;
 /**
  * This class represents a ship of the battleships game. Each ship
  * consists of two or more cells and can be moved using the methods
@@ -30,7 +29,7 @@ import android.os.Parcelable;
  * @author Alexander Müller, Ali Kalsen
  */
 
-public class GameShip implements Parcelable{
+public class GameShip {
     private int size;
     private GameCell[] shipsCells;
     private Direction orientation;
@@ -39,6 +38,7 @@ public class GameShip implements Parcelable{
 
     private int startCellCol;
     private int startCellRow;
+    private int hitsRemaining;//number of cells of this ship which have not been hit yet
 
     public GameShip(GameGrid grid,
                     GameShipSet shipSet,
@@ -92,9 +92,12 @@ public class GameShip implements Parcelable{
             }
         }
 
+        this.hitsRemaining = 0;
         for (int i = 0; i < this.shipsCells.length; i++) {
             this.shipsCells[i].setShip(true);
+            if ( !this.shipsCells[i].isHit() ) this.hitsRemaining++;
         }
+        this.shipSet.registerShip(this);
     }
 
     public int getSize() {
@@ -118,12 +121,33 @@ public class GameShip implements Parcelable{
     }
 
     public boolean isDestroyed() {
-        for (int i = 0; i < shipsCells.length; i++) {
-            if ( !shipsCells[i].isHit() ) {
-                return false;
-            }
+        return this.hitsRemaining == 0;
+    }
+
+    /**
+     * Returns the position of this ship in the PlacementTable for its size.
+     * @return Index of the position
+     */
+    int getPlacementPosition() {
+        PlacementTable table = PlacementTable.get(this.grid.getSize(), this.size);
+        switch (this.orientation) {
+            case SOUTH:
+                return table.getPosition(this.startCellCol, this.startCellRow - (this.size - 1), false);
+            case EAST:
+                return table.getPosition(this.startCellCol - (this.size - 1), this.startCellRow, true);
+            case WEST:
+                return table.getPosition(this.startCellCol, this.startCellRow, true);
+            default:
+                return table.getPosition(this.startCellCol, this.startCellRow, false);
         }
-        return true;
+    }
+
+    int getHitsRemaining() {
+        return hitsRemaining;
+    }
+
+    void updateHitsRemaining(int change) {
+        this.hitsRemaining += change;
     }
 
     public boolean containsCell(GameCell cell) {
@@ -158,6 +182,7 @@ public class GameShip implements Parcelable{
         for(GameCell cell : this.shipsCells){
             if ( this.shipSet.shipsOnCell(cell) == 1) cell.setShip(false);
         }
+        this.shipSet.unregisterShip(this);
     }
 
     public void moveShip(Direction direction) {
@@ -302,34 +327,20 @@ public class GameShip implements Parcelable{
         this.initializeShipsCells();
     }
 
-    @Override
-    public int describeContents() {
-        return 0;
-    }
-
-    @Override
-    public void writeToParcel(Parcel out, int flags) {
-        out.writeInt(this.size);
-        out.writeString(this.orientation.name());
-        out.writeInt(this.shipsCells[0].getCol());
-        out.writeInt(this.shipsCells[0].getRow());
+    void writeState(DataOutput out) throws IOException {
+        out.writeByte(this.grid.cellIndex(this.startCellCol, this.startCellRow));
+        out.writeByte(this.size * 4 + this.orientation.ordinal());
     }
 
-    public static final Parcelable.Creator<GameShip> CREATOR = new Parcelable.Creator<GameShip>() {
-        public GameShip createFromParcel(Parcel in) {
-            return new GameShip(in);
-        }
-
-        public GameShip[] newArray(int size) {
-            return new GameShip[size];
-        }
-    };
-
-    private GameShip(Parcel in) {
-        this.size = in.readInt();
-        this.orientation = Direction.valueOf(in.readString());
-        this.startCellCol = in.readInt();
-        this.startCellRow = in.readInt();
+    /*
+    Restores a ship from the index of its front cell and its shape, i.e. size * 4 plus the ordinal
+    of its orientation.
+     */
+    GameShip(int gridSize, int startCell, int shape) {
+        this.size = shape / 4;
+        this.orientation = Direction.values()[shape % 4];
+        this.startCellCol = startCell % gridSize;
+        this.startCellRow = startCell / gridSize;
         //recreateShip has to be called for the ship to be fully recovered.
     }
 
@@ -0,0 +1,442 @@
+/*
+    Copyright 2017 Alexander Müller, Ali Kalsen
+
+    This file is part of Privacy Friendly Battleships.
+
+    Privacy Friendly Battleships is free software: you can redistribute
+    it and/or modify it under the terms of the GNU General Public License
+    as published by the Free Software Foundation, either version 3 of the
+    License, or (at your option) any later version.
+
+    Privacy Friendly Battleships is distributed in the hope that it will
+    be useful, but WITHOUT ANY WARRANTY; without even the implied warranty
+    of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+    General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with Foobar.  If not, see http://www.gnu.org/licenses/.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * This class represents the set of ships of a player for the battleships
+ * game. It is initialized with the amount of ships of each possible ship
+ * size and can place the ships randomly on the game grid.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class GameShipSet {
+    private GameShip[][] ships;
+    private GameShip[] size2Ships;
+    private GameShip[] size3Ships;
+    private GameShip[] size4Ships;
+    private GameShip[] size5Ships;
+    private int totalShipCount;
+    private GameGrid grid;
+    private GameShip[] cellOwners;//ship on the cell with the given index, null if the cell contains water
+    private int[] shipsPerCell;//number of ships on the cell with the given index
+    private int overlappingCells;//number of cells with more than one ship
+    private int[] halosPerCell;//number of ships on the cell with the given index or next to it
+    private int touchingCells;//number of ship cells next to another ship
+    private boolean shipsMayTouch = true;
+    private int shipCellsRemaining;//number of ship cells which have not been hit yet
+
+    /*
+    public GameShipSet(GameGrid grid){
+        this.grid = grid;
+        this.size2Ships = new GameShip[1];
+        this.size3Ships = new GameShip[2];
+        this.size4Ships = new GameShip[1];
+        this.size5Ships = new GameShip[1];
+        this.ships = new GameShip[][] {this.size2Ships, this.size3Ships, this.size4Ships, this.size5Ships};
+        this.totalShipCount = 5;
+    }
+    */
+
+    public GameShipSet(GameGrid grid, int shipsSize2, int shipsSize3, int shipsSize4, int shipsSize5) {
+        this.grid = grid;
+        this.size2Ships = new GameShip[shipsSize2];
+        this.size3Ships = new GameShip[shipsSize3];
+        this.size4Ships = new GameShip[shipsSize4];
+        this.size5Ships = new GameShip[shipsSize5];
+        this.ships = new GameShip[][] {this.size2Ships, this.size3Ships, this.size4Ships, this.size5Ships};
+        this.totalShipCount = shipsSize2 + shipsSize3 + shipsSize4 + shipsSize5;
+        initializeCellIndex();
+    }
+
+    private void initializeCellIndex() {
+        int cellCount = this.grid.getSize() * this.grid.getSize();
+        this.cellOwners = new GameShip[cellCount];
+        this.shipsPerCell = new int[cellCount];
+        this.overlappingCells = 0;
+        this.halosPerCell = new int[cellCount];
+        this.touchingCells = 0;
+        this.shipCellsRemaining = 0;
+    }
+
+    public int getTotalShipCount() {
+        return totalShipCount;
+    }
+
+    /**
+     * Returns true if all ships of this set are destroyed and therefore the corresponding player has lost.
+     * @return True if all ships are destroyed, false if not
+     */
+    public boolean allShipsDestroyed() {
+        return this.shipCellsRemaining == 0;
+    }
+
+    /**
+     * Returns the amount of ships of the sizes 2, 3, 4 and 5 which have not been destroyed yet.
+     * Ships which have not been placed count as not destroyed.
+     * @return Ship count indexed by ship size - 2
+     */
+    public int[] getRemainingShipCount() {
+        return getRemainingShipCount(new int[this.ships.length]);
+    }
+
+    /**
+     * Writes the amount of ships which have not been destroyed yet into the given array, see
+     * getRemainingShipCount().
+     * @param remaining Array of length 4, which is overwritten
+     * @return The given array
+     */
+    public int[] getRemainingShipCount(int[] remaining) {
+        for (int i = 0; i < this.ships.length; i++) {
+            remaining[i] = 0;
+            for (GameShip ship : this.ships[i]) {
+                if (ship == null || !ship.isDestroyed())
+                    remaining[i]++;
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Marks the cells of all destroyed ships on the bitboard. If ships may not touch, the cells
+     * adjacent to the destroyed ships are marked as well, since they cannot contain a ship.
+     * @param board Bitboard of the grid
+     */
+    public void addDestroyedShipsTo(long[] board) {
+        for (GameShip[] shipsSizeN : this.ships) {
+            for (GameShip ship : shipsSizeN) {
+                if (ship == null || !ship.isDestroyed())
+                    continue;
+                PlacementTable table = PlacementTable.get(this.grid.getSize(), ship.getSize());
+                if (this.shipsMayTouch)
+                    table.addTo(ship.getPlacementPosition(), board);
+                else
+                    table.addHaloTo(ship.getPlacementPosition(), board);
+            }
+        }
+    }
+
+    /**
+     * Places an ship on the grid. The ship starts at the given row and column and expands to the
+     * back.
+     * @param startCol The column of the ships front cell
+     * @param startRow The row of the ships front cell
+     * @param size The size of the ship
+     * @param direction The direction the ship is facing
+     */
+    public void placeShip(int startCol, int startRow, int size, Direction direction) {
+        if (size < 2 || size > 5) throw new IllegalArgumentException("Illegal ship-size.");
+
+        //get free slot for ship
+        int shipIndex;
+        for (shipIndex = 0; shipIndex < this.ships[size - 2].length; shipIndex++)
+            if (this.ships[size - 2][shipIndex] == null) break;
+        if (shipIndex == this.ships[size - 2].length)
+            throw new IllegalArgumentException("All ships of this size already placed.");
+
+        this.ships[size - 2][shipIndex] = new GameShip(this.grid, this, this.grid.getCell(startCol, startRow), size, direction);
+    }
+
+    /**
+     * Places all ships randomly on the grid. The resulting placement will be legit according to the
+     * rules of the game and every legit placement is equally likely, unless the fleet is so dense
+     * that the FleetSampler switches to its Markov chain. Ships that have already been placed will
+     * be overwritten. For dense fleets the search for a placement is bounded by
+     * FleetPlacer.DEFAULT_TIME_BUDGET.
+     * @param ranGen Random number generator, usually the one of the game
+     * @return True if all ships have been placed, false if the fleet does not fit on the grid or
+     * no placement has been found in time. In the latter case no ship is placed.
+     */
+    public boolean placeShipsRandomly(Random ranGen) {
+        FleetSampler sampler = new FleetSampler(this.grid.getSize(), getShipCount(), this.shipsMayTouch, ranGen);
+        boolean placed = sampler.sample();
+
+        removeAllShips();
+        if (!placed)
+            return false;
+
+        for (int i = 0; i < sampler.getShipCount(); i++) {
+            int size = sampler.getShipSize(i);
+            int col = sampler.getCol(i);
+            int row = sampler.getRow(i);
+
+            // Choose randomly which end of the ship is its front
+            boolean reversed = ranGen.nextBoolean();
+            if (sampler.isHorizontal(i)) {
+                if (reversed)
+                    placeShip(col + size - 1, row, size, Direction.EAST);
+                else
+                    placeShip(col, row, size, Direction.WEST);
+            } else {
+                if (reversed)
+                    placeShip(col, row + size - 1, size, Direction.SOUTH);
+                else
+                    placeShip(col, row, size, Direction.NORTH);
+            }
+        }
+        return true;
+    }
+
+    private void removeAllShips() {
+        for (int i = 0; i < this.ships.length; i++) {
+            for (int j = 0; j < this.ships[i].length; j++) {
+                if (this.ships[i][j] != null) {
+                    this.ships[i][j].close();
+                    this.ships[i][j] = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the amount of ships of the sizes 2, 3, 4 and 5 in this set.
+     * @return Ship count indexed by ship size - 2
+     */
+    public int[] getShipCount() {
+        return new int[] {size2Ships.length, size3Ships.length, size4Ships.length, size5Ships.length};
+    }
+
+    public boolean allShipsPlaced() {
+        for (GameShip[] shipsSizeN : this.ships) {
+            for (GameShip ship : shipsSizeN) {
+                if ( ship == null ) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if all ships are placed correctly according to the rules, false if not.
+     * @return True if ship-placement is legit, false if not
+     */
+    public boolean placementLegit() {
+        if (this.overlappingCells > 0)
+            return false;
+        if (!this.shipsMayTouch && this.touchingCells > 0)
+            return false;
+        return true;
+    }
+
+    /**
+     * Returns true if a ship on the given cell violates the rules because of an adjacent ship,
+     * i.e. if ships may not touch each other and another ship is next to the cell.
+     * @param cell The cell to check
+     * @return True if the cell is next to another ship although this is forbidden
+     */
+    public boolean touchesOtherShip(GameCell cell) {
+        return !this.shipsMayTouch && isTouching(cell.getIndex());
+    }
+
+    private boolean isTouching(int index) {
+        return this.shipsPerCell[index] > 0 && this.halosPerCell[index] > 1;
+    }
+
+    /**
+     * Defines whether ships may be placed next to each other. If not, ships need to have at least
+     * one cell in between, including diagonals.
+     * @param shipsMayTouch True if ships may touch each other, false if not
+     */
+    public void setShipsMayTouch(boolean shipsMayTouch) {
+        this.shipsMayTouch = shipsMayTouch;
+    }
+
+    public boolean getShipsMayTouch() {
+        return shipsMayTouch;
+    }
+
+    /**
+     * Returns the number of ships on the given cell.
+     * @param cell The cell to count ships on
+     * @return Amount if ships ob the given cell
+     */
+    public int shipsOnCell(GameCell cell) {
+        return this.shipsPerCell[cell.getIndex()];
+    }
+
+    void writeState(DataOutput out) throws IOException {
+        for (GameShip[] shipsSizeN : this.ships) {
+            for (GameShip ship : shipsSizeN) {
+                if (ship != null) {
+                    ship.writeState(out);
+                } else {
+                    out.writeShort(0);//ships which have not been placed yet are null
+                }
+            }
+        }
+    }
+
+    GameShipSet(DataInput in, int gridSize, int[] shipCount, boolean shipsMayTouch) throws IOException {
+        this.size2Ships = readShips(in, gridSize, shipCount[0]);
+        this.size3Ships = readShips(in, gridSize, shipCount[1]);
+        this.size4Ships = readShips(in, gridSize, shipCount[2]);
+        this.size5Ships = readShips(in, gridSize, shipCount[3]);
+        this.ships = new GameShip[][] { size2Ships, size3Ships, size4Ships, size5Ships };
+        this.totalShipCount = size2Ships.length + size3Ships.length + size4Ships.length + size5Ships.length;
+        this.shipsMayTouch = shipsMayTouch;
+        //recreateShipSet has to be called for this.grid and ships to be recovered.
+    }
+
+    private static GameShip[] readShips(DataInput in, int gridSize, int count) throws IOException {
+        GameShip[] ships = new GameShip[count];
+        for (int i = 0; i < ships.length; i++) {
+            int startCell = in.readUnsignedByte();
+            int shape = in.readUnsignedByte();
+            ships[i] = shape != 0 ? new GameShip(gridSize, startCell, shape) : null;
+        }
+        return ships;
+    }
+
+    void recreateShipSet(GameGrid grid) {
+        this.grid = grid;
+        initializeCellIndex();
+
+        for (GameShip[] shipsSizeN : this.ships) {
+            for (GameShip ship : shipsSizeN) {
+                if(ship != null)
+                        ship.recreateShip(this.grid, this);
+            }
+        }
+    }
+
+    /**
+     * Finds the ship, which contains the cell.
+     * @param gameCell: The cell which is assigned to at most one ship.
+     * @return The ship containing gameCell.
+     */
+    public GameShip findShipContainingCell(GameCell gameCell){
+        if(gameCell.isShip()){
+            return this.cellOwners[gameCell.getIndex()];
+        }
+        return null;
+    }
+
+    /**
+     * Returns the ship on the cell with the given index without creating a GameCell.
+     * @param cellIndex Index of the cell, i.e. row * size + col
+     * @return The ship on the cell or null if the cell contains water
+     */
+    GameShip getShipOnCell(int cellIndex) {
+        return this.cellOwners[cellIndex];
+    }
+
+    /**
+     * Marks the cells of the given ship as owned by it. Called by the ship whenever its cells
+     * have been (re)initialized.
+     * @param ship The ship which has been placed
+     */
+    void registerShip(GameShip ship) {
+        this.shipCellsRemaining += ship.getHitsRemaining();
+        for (GameCell cell : ship.getShipsCells()) {
+            int index = cell.getIndex();
+            boolean wasTouching = isTouching(index);
+            if (++this.shipsPerCell[index] == 2)
+                this.overlappingCells++;
+            updateTouchingCells(index, wasTouching);
+            if (this.cellOwners[index] == null)
+                this.cellOwners[index] = ship;
+        }
+        updateHalo(ship, 1);
+    }
+
+    /**
+     * Removes the ownership of the given ship from its cells. Called by the ship when it is closed,
+     * after the cells without any other ship have been marked as water.
+     * @param ship The ship which has been removed
+     */
+    void unregisterShip(GameShip ship) {
+        this.shipCellsRemaining -= ship.getHitsRemaining();
+        updateHalo(ship, -1);
+        for (GameCell cell : ship.getShipsCells()) {
+            int index = cell.getIndex();
+            boolean wasTouching = isTouching(index);
+            if (this.shipsPerCell[index]-- == 2)
+                this.overlappingCells--;
+            updateTouchingCells(index, wasTouching);
+            if (this.cellOwners[index] != ship)
+                continue;
+            this.cellOwners[index] = cell.isShip() ? findOtherShipOnCell(cell, ship) : null;
+        }
+    }
+
+    private void updateHalo(GameShip ship, int change) {
+        PlacementTable table = PlacementTable.get(this.grid.getSize(), ship.getSize());
+        int position = ship.getPlacementPosition();
+        for (int i = 0; i < table.getHaloSize(position); i++) {
+            int index = table.getHaloCell(position, i);
+            boolean wasTouching = isTouching(index);
+            this.halosPerCell[index] += change;
+            updateTouchingCells(index, wasTouching);
+        }
+    }
+
+    private void updateTouchingCells(int index, boolean wasTouching) {
+        boolean touching = isTouching(index);
+        if (touching && !wasTouching)
+            this.touchingCells++;
+        else if (!touching && wasTouching)
+            this.touchingCells--;
+    }
+
+    /**
+     * Updates the hit counters of the ship on the given cell and of the whole set. Called by the
+     * grid whenever the hit state of a ship cell changes, i.e. for every hit made by
+     * GameController.makeMove().
+     * @param cellIndex Index of the cell that has been hit
+     * @param hit True if the cell has been hit, false if the hit has been reverted
+     */
+    void updateHitCounters(int cellIndex, boolean hit) {
+        GameShip ship = this.cellOwners[cellIndex];
+        if (ship == null)
+            return;
+        ship.updateHitsRemaining(hit ? -1 : 1);
+        this.shipCellsRemaining += hit ? -1 : 1;
+    }
+
+    private GameShip findOtherShipOnCell(GameCell cell, GameShip ship) {
+        for (GameShip[] shipsSizeN : this.ships) {
+            for (GameShip other : shipsSizeN) {
+                if ( other != null && other != ship && other.containsCell(cell) )
+                    return other;
+            }
+        }
+        return null;
+    }
+
+    public int getNumberOfShipsSize2(){
+        return size2Ships.length;
+    }
+
+    public int getNumberOfShipsSize3(){
+        return size3Ships.length;
+    }
+
+    public int getNumberOfShipsSize4(){
+        return size4Ships.length;
+    }
+
+    public int getNumberOfShipsSize5(){
+        return size5Ships.length;
+    }
+}
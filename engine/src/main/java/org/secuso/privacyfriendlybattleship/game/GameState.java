@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * GameState.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * This class defines the binary format of the state of a game, which is used for Parcels as well
+ * as for files. It is written by GameController.writeState() and read by
+ * GameController(DataInput), in big-endian byte order:
+ * - int MAGIC, byte FORMAT_VERSION
+ * - byte grid size, byte ordinal of the GameMode, byte flags: 1 if it is the turn of the second
+ *   player, 2 if there is an AI, 4 if ships may touch
+ * - four bytes for the amount of ships of the sizes 2, 3, 4 and 5
+ * - long seed of the game, six bytes state of its random number generator
+ * - the grids of the first and the second player, each as
+ *   - the cells at 2 bits each, 1 if the cell contains a ship plus 2 if it has been hit, four cells
+ *     per byte starting with the lowest bits
+ *   - every ship, ordered by size, as two bytes: index of its front cell, length * 4 plus the
+ *     ordinal of its Direction. Ships which have not been placed are written as two zero bytes.
+ * - if there is an AI:
+ *   - its view of the grid under attack at 2 bits per cell like above, 0 unknown, 1 water, 2 ship
+ *   - byte 1 if the AI has won
+ *   - short number of open hits followed by their cells as bytes, most recent last
+ *   - for both parity classes of the CellFrontier a short size followed by its cells as bytes
+ *   - its budget: int samples, long time budget, int endgame cutoff, byte book depth
+ * Cells are indexed by row * grid size + col, so grids up to MAX_GRID_SIZE fit into a byte.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+final class GameState {
+
+    final static int MAGIC = 0x50464247;//"PFBG"
+    final static int FORMAT_VERSION = 1;
+    final static int MAX_GRID_SIZE = 16;
+
+    private GameState(){} // this class should not be initialized
+
+    /*
+     Writes the values of the first count cells at 2 bits each, four cells per byte.
+      */
+    static void writeTwoBitCells(DataOutput out, int[] values, int count) throws IOException {
+        for (int i = 0; i < count; i += 4) {
+            int packed = 0;
+            for (int j = 0; j < 4 && i + j < count; j++) {
+                packed |= (values[i + j] & 3) << (2 * j);
+            }
+            out.writeByte(packed);
+        }
+    }
+
+    static void readTwoBitCells(DataInput in, int[] values, int count) throws IOException {
+        for (int i = 0; i < count; i += 4) {
+            int packed = in.readUnsignedByte();
+            for (int j = 0; j < 4 && i + j < count; j++) {
+                values[i + j] = (packed >>> (2 * j)) & 3;
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * MonteCarloTargeting.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * This class estimates for every cell the probability that it contains a ship. It draws layouts
+ * of the remaining ships which are consistent with the shots so far, see FleetSampler, and counts
+ * how often each cell is covered. The AI shoots at the cell covered most often. The frequencies are
+ * only estimates in any case. If the fleet is so dense that the sampler switches to its Markov
+ * chain, the layouts are not uniform either, so the estimates may be biased.
+ *
+ * The samples are split into chunks of CHUNK_SIZE layouts, which are drawn in parallel on the
+ * WorkerPool. Every chunk uses its own random number generator derived from the seed, so the
+ * result only depends on the seed, as long as the time budget is not exhausted. Every sample checks
+ * the time budget, chunks stop drawing layouts as soon as it is exhausted.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class MonteCarloTargeting {
+
+    // Default number of layouts per move
+    public final static int DEFAULT_SAMPLES = 4096;
+
+    // Default time budget per move in milliseconds
+    public final static long DEFAULT_TIME_BUDGET = 200;
+
+    // Number of layouts drawn by one task
+    public final static int CHUNK_SIZE = 256;
+
+    // Number of discarded layouts after which a sampler switches to its Markov chain
+    public final static int REJECTION_LIMIT = 2000;
+
+    private final int gridSize;
+    private final boolean shipsMayTouch;
+    private Clock clock = Clock.SYSTEM;
+
+    public MonteCarloTargeting(int gridSize, boolean shipsMayTouch) {
+        this.gridSize = gridSize;
+        this.shipsMayTouch = shipsMayTouch;
+    }
+
+    /*
+     Sets the clock the time budget is measured with, the tests use a clock which advances on
+     every read.
+      */
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cell which is covered by a ship in most of the sampled layouts.
+     * @param remainingShips Amount of not destroyed ships of the sizes 2, 3, 4 and 5
+     * @param water Bitboard of the cells which cannot contain a remaining ship
+     * @param hits Bitboard of the hit cells whose ship has not been destroyed yet
+     * @param excluded Bitboard of the cells which may not be chosen
+     * @param samples Number of layouts to draw
+     * @param timeBudget Time budget in milliseconds, no limit if it is not positive
+     * @param seed Seed of the random number generators
+     * @return Index of the chosen cell or -1 if no consistent layout has been found
+     */
+    public int chooseCell(int[] remainingShips, long[] water, long[] hits, long[] excluded,
+                          int samples, long timeBudget, long seed) {
+        int[] frequencies = new int[this.gridSize * this.gridSize];
+        if (computeFrequencies(remainingShips, water, hits, samples, timeBudget, seed, frequencies) == 0)
+            return -1;
+        return ProbabilityDensity.chooseCell(frequencies, excluded, new Random(seed));
+    }
+
+    /**
+     * Counts for every cell in how many of the sampled layouts it is covered by a ship.
+     * @param frequencies Array of length gridSize * gridSize, which is overwritten with the counts
+     * @return The number of layouts drawn
+     */
+    public int computeFrequencies(final int[] remainingShips, final long[] water, final long[] hits,
+                                  int samples, long timeBudget, final long seed, int[] frequencies) {
+        final long deadline = timeBudget > 0 ? clock.nanoTime() + timeBudget * 1000000L : Long.MAX_VALUE;
+        for (int i = 0; i < frequencies.length; i++) frequencies[i] = 0;
+
+        List<Future<int[]>> results = new ArrayList<>();
+        for (int chunk = 0; chunk * CHUNK_SIZE < samples; chunk++) {
+            final int chunkIndex = chunk;
+            final int chunkSamples = Math.min(CHUNK_SIZE, samples - chunk * CHUNK_SIZE);
+            results.add(WorkerPool.get().submit(new Callable<int[]>() {
+                @Override
+                public int[] call() {
+                    if (clock.nanoTime() > deadline)
+                        return null;
+                    return sampleChunk(remainingShips, water, hits, chunkSamples, chunkSeed(seed, chunkIndex), deadline);
+                }
+            }));
+        }
+
+        int drawn = 0;
+        try {
+            for (Future<int[]> result : results) {
+                int[] counts = result.get();
+                if (counts == null)
+                    continue;
+                for (int i = 0; i < frequencies.length; i++) frequencies[i] += counts[i];
+                drawn += counts[frequencies.length];
+            }
+        } catch (InterruptedException e) {
+            for (Future<int[]> result : results) result.cancel(true);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        return drawn;
+    }
+
+    /*
+     Returns the counts of the cells followed by the number of layouts drawn. The sampler stops
+     at the deadline, also within the search for the starting layout of its Markov chain.
+      */
+    private int[] sampleChunk(int[] remainingShips, long[] water, long[] hits, int samples, long seed,
+                              long deadline) {
+        int cellCount = this.gridSize * this.gridSize;
+        int[] counts = new int[cellCount + 1];
+        FleetSampler sampler = new FleetSampler(this.gridSize, remainingShips, this.shipsMayTouch, new Random(seed));
+        sampler.setConstraints(water, hits);
+        sampler.setRejectionLimit(REJECTION_LIMIT);
+        sampler.setDeadline(deadline);
+        sampler.setClock(this.clock);
+
+        long[] layout = Bitboard.create(cellCount);
+        for (int i = 0; i < samples; i++) {
+            if (!sampler.sample())
+                break;
+            sampler.writeLayout(layout, 0);
+            for (int w = 0; w < layout.length; w++) {
+                long word = layout[w];
+                while (word != 0) {
+                    counts[(w << 6) + Long.numberOfTrailingZeros(word)]++;
+                    word &= word - 1;
+                }
+            }
+            counts[cellCount]++;
+        }
+        return counts;
+    }
+
+    private static long chunkSeed(long seed, int chunk) {
+        return seed ^ (chunk * 0x9E3779B97F4A7C15L);
+    }
+}
@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * OpeningBook.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class holds the precomputed first moves of the AI for one fleet, which have been computed
+ * offline by the OpeningBookBuilder. A move is looked up by the hash of the shots so far, see
+ * hashShot(). The hash does not depend on the order of the shots, since the AI only considers
+ * which cells have been hit or missed. The book only applies as long as no ship has been
+ * destroyed.
+ *
+ * The books are read through a Source on first use. The app bundles them as uncompressed assets in
+ * ASSET_DIRECTORY and memory-maps them. Their binary format is, in big-endian byte order:
+ * - int MAGIC, byte FORMAT_VERSION
+ * - byte grid size, four bytes for the amount of ships of the sizes 2, 3, 4 and 5, byte 1 if
+ *   ships may touch and 0 otherwise
+ * - int number of entries
+ * - the entries, ordered by their hash as signed longs: long hash of the shots, byte cell to attack
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public final class OpeningBook {
+
+    public final static int MAGIC = 0x50464242;//"PFBB"
+    public final static int FORMAT_VERSION = 1;
+    public final static String ASSET_DIRECTORY = "books";
+
+    private final static int HEADER_SIZE = 15;
+    private final static int ENTRY_SIZE = 9;
+
+    /**
+     * Source of the books, e.g. the assets of the app or files on a plain JVM.
+     */
+    public interface Source {
+        /**
+         * Returns a buffer containing the book with the given name from its position on.
+         * @param name Path of the book, e.g. books/opening_10.book
+         * @throws IOException if there is no such book or it cannot be read
+         */
+        ByteBuffer open(String name) throws IOException;
+    }
+
+    private static Source source;
+    private static final Map<String, OpeningBook> books = new HashMap<>();//null if the asset is missing
+
+    private final ByteBuffer buffer;
+    private final int gridSize;
+    private final int[] shipCount;
+    private final boolean shipsMayTouch;
+    private final int entryCount;
+
+    /**
+     * Sets the source the books are read from. Has to be called before the AI makes its first
+     * move, otherwise the AI does not use a book.
+     */
+    public static synchronized void init(Source bookSource) {
+        source = bookSource;
+    }
+
+    /**
+     * Returns the book for the given fleet. The book is read on the first request and cached for
+     * the lifetime of the process.
+     * @param gridSize Size of the grid
+     * @param shipCount Amount of ships of the sizes 2, 3, 4 and 5
+     * @param shipsMayTouch False if the ships need to have at least one cell in between
+     * @return The book or null if there is none for the fleet
+     */
+    public static synchronized OpeningBook get(int gridSize, int[] shipCount, boolean shipsMayTouch) {
+        if (source == null)
+            return null;
+
+        String name = ASSET_DIRECTORY + "/" + getAssetName(gridSize, shipsMayTouch);
+        if (!books.containsKey(name)) {
+            OpeningBook book;
+            try {
+                book = new OpeningBook(source.open(name));
+            } catch (IOException | IllegalArgumentException e) {
+                book = null;
+            }
+            books.put(name, book);
+        }
+
+        OpeningBook book = books.get(name);
+        if (book == null || !book.matches(gridSize, shipCount, shipsMayTouch))
+            return null;
+        return book;
+    }
+
+    /**
+     * Returns the file name of the book for the given grid, e.g. opening_10.book, or
+     * opening_10_apart.book if ships may not touch.
+     */
+    public static String getAssetName(int gridSize, boolean shipsMayTouch) {
+        return "opening_" + gridSize + (shipsMayTouch ? "" : "_apart") + ".book";
+    }
+
+    /**
+     * Reads a book from the buffer, which has to contain the book from its position on.
+     * @throws IllegalArgumentException if the buffer does not contain a valid book
+     */
+    public OpeningBook(ByteBuffer buffer) {
+        this.buffer = buffer.slice();
+        if (this.buffer.remaining() < HEADER_SIZE || this.buffer.getInt(0) != MAGIC)
+            throw new IllegalArgumentException("The buffer does not contain an opening book.");
+        if (this.buffer.get(4) != FORMAT_VERSION)
+            throw new IllegalArgumentException("Unsupported version of the opening book: " + this.buffer.get(4));
+
+        this.gridSize = this.buffer.get(5);
+        this.shipCount = new int[4];
+        for (int i = 0; i < 4; i++) this.shipCount[i] = this.buffer.get(6 + i);
+        this.shipsMayTouch = this.buffer.get(10) != 0;
+        this.entryCount = this.buffer.getInt(11);
+        if (this.buffer.remaining() < HEADER_SIZE + (long) this.entryCount * ENTRY_SIZE)
+            throw new IllegalArgumentException("The opening book is truncated.");
+    }
+
+    public boolean matches(int gridSize, int[] shipCount, boolean shipsMayTouch) {
+        return this.gridSize == gridSize && Arrays.equals(this.shipCount, shipCount)
+                && this.shipsMayTouch == shipsMayTouch;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Returns the cell to attack after the shots with the given hash.
+     * @param hash Hash of the shots so far
+     * @return Index of the cell or -1 if the shots are not in the book
+     */
+    public int lookup(long hash) {
+        int low = 0;
+        int high = this.entryCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long entryHash = this.buffer.getLong(HEADER_SIZE + middle * ENTRY_SIZE);
+            if (entryHash < hash) {
+                low = middle + 1;
+            } else if (entryHash > hash) {
+                high = middle - 1;
+            } else {
+                return this.buffer.get(HEADER_SIZE + middle * ENTRY_SIZE + 8) & 0xFF;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the hash of a single shot. The hash of several shots is the xor of their hashes.
+     * @param cell Index of the attacked cell
+     * @param hit True if the shot has hit a ship
+     */
+    public static long hashShot(int cell, boolean hit) {
+        // SplitMix64 finalizer
+        long z = (cell * 2L + (hit ? 1 : 0) + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Writes a book in the format described above. The entries are sorted by their hashes.
+     * @param hashes Hashes of the shots of each entry, each hash may occur once
+     * @param cells Cell to attack for each entry
+     * @param count Number of entries
+     */
+    public static void write(OutputStream out, int gridSize, int[] shipCount, boolean shipsMayTouch,
+                             long[] hashes, int[] cells, int count) throws IOException {
+        long[][] entries = new long[count][];
+        for (int i = 0; i < count; i++) entries[i] = new long[]{hashes[i], cells[i]};
+        Arrays.sort(entries, new Comparator<long[]>() {
+            @Override
+            public int compare(long[] a, long[] b) {
+                return a[0] < b[0] ? -1 : (a[0] == b[0] ? 0 : 1);
+            }
+        });
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(FORMAT_VERSION);
+        data.writeByte(gridSize);
+        for (int i = 0; i < 4; i++) data.writeByte(shipCount[i]);
+        data.writeByte(shipsMayTouch ? 1 : 0);
+        data.writeInt(count);
+        for (long[] entry : entries) {
+            data.writeLong(entry[0]);
+            data.writeByte((int) entry[1]);
+        }
+        data.flush();
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * OpeningBookBuilder.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+
+/**
+ * This class computes an OpeningBook offline. Starting without any shots, it chooses the move of
+ * the master AI with many more samples than the AI can afford during a game, see
+ * MonteCarloTargeting, and continues with both outcomes of that move, up to the given number of
+ * shots. Outcomes which are impossible for the fleet are skipped.
+ *
+ * The books in the assets have been built with DEFAULT_DEPTH and DEFAULT_SAMPLES for the standard
+ * fleets of the grid sizes 5 and 10, each with and without ships touching.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class OpeningBookBuilder {
+
+    // Default number of shots covered by the book
+    public final static int DEFAULT_DEPTH = 8;
+
+    // Default number of layouts per move
+    public final static int DEFAULT_SAMPLES = 20000;
+
+    private final int gridSize;
+    private final int[] shipCount;
+    private final boolean shipsMayTouch;
+    private final MonteCarloTargeting targeting;
+
+    private long[] hashes;
+    private int[] cells;
+    private int entryCount;
+
+    public OpeningBookBuilder(int gridSize, int[] shipCount, boolean shipsMayTouch) {
+        this.gridSize = gridSize;
+        this.shipCount = shipCount;
+        this.shipsMayTouch = shipsMayTouch;
+        this.targeting = new MonteCarloTargeting(gridSize, shipsMayTouch);
+    }
+
+    /**
+     * Computes the book and writes it to the stream.
+     * @param depth Number of shots covered by the book
+     * @param samples Number of layouts per move
+     * @param seed Seed of the random number generators
+     */
+    public void build(OutputStream out, int depth, int samples, long seed) throws IOException {
+        int maxEntries = (1 << depth) - 1;
+        this.hashes = new long[maxEntries];
+        this.cells = new int[maxEntries];
+        this.entryCount = 0;
+
+        int cellCount = this.gridSize * this.gridSize;
+        addMoves(Bitboard.create(cellCount), Bitboard.create(cellCount), 0L, depth, samples, seed);
+        OpeningBook.write(out, this.gridSize, this.shipCount, this.shipsMayTouch,
+                this.hashes, this.cells, this.entryCount);
+    }
+
+    /*
+     Adds the move after the given shots and the moves after its outcomes.
+      */
+    private void addMoves(long[] water, long[] hits, long hash, int depth, int samples, long seed) {
+        if (depth == 0)
+            return;
+
+        int cellCount = this.gridSize * this.gridSize;
+        int[] frequencies = new int[cellCount];
+        int drawn = this.targeting.computeFrequencies(this.shipCount, water, hits, samples, 0, seed, frequencies);
+        if (drawn == 0)
+            return;
+
+        long[] excluded = Bitboard.create(cellCount);
+        for (int w = 0; w < excluded.length; w++) excluded[w] = water[w] | hits[w];
+        int cell = ProbabilityDensity.chooseCell(frequencies, excluded, new Random(seed));
+        if (cell == -1)
+            return;
+        this.hashes[this.entryCount] = hash;
+        this.cells[this.entryCount] = cell;
+        this.entryCount++;
+
+        long childSeed = seed * 0x5DEECE66DL + 0xBL;
+        if (frequencies[cell] < drawn) {
+            Bitboard.set(water, cell);
+            addMoves(water, hits, hash ^ OpeningBook.hashShot(cell, false), depth - 1, samples, childSeed);
+            Bitboard.clear(water, cell);
+        }
+        if (frequencies[cell] > 0) {
+            Bitboard.set(hits, cell);
+            addMoves(water, hits, hash ^ OpeningBook.hashShot(cell, true), depth - 1, samples, childSeed + 1);
+            Bitboard.clear(hits, cell);
+        }
+    }
+}
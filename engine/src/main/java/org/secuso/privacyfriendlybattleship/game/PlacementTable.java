@@ -0,0 +1,300 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * PlacementTable.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import java.util.Arrays;
+
+/**
+ * This class contains every legal position of a ship of a certain size on a grid of a certain
+ * size. Each position is stored as a bitboard together with the upper left cell of the ship and
+ * whether it is horizontal. Additionally every position has a halo, i.e. the ship's cells and all
+ * cells adjacent to them, including diagonals. Another ship touches the ship iff it intersects
+ * its halo. The tables are immutable, built on first use and shared by all games.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public final class PlacementTable {
+
+    private static volatile PlacementTable[] tables = new PlacementTable[0];//indexed by gridSize * 64 + shipSize, no boxing on lookup
+
+    private final int gridSize;
+    private final int shipSize;
+    private final int positionCount;
+    private final int words;//number of longs per bitboard
+    private final long[] masks;//bitboards of all positions, stored one after another
+    private final int[] cols;//column of the upper left cell of each position
+    private final int[] rows;//row of the upper left cell of each position
+    private final boolean[] horizontal;
+    private final long[] haloMasks;//bitboards of the halos of all positions, stored one after another
+    private final int[][] haloCells;//indices of the cells in the halo of each position
+    private final int[][] positionsByCell;//positions covering the cell with the given index
+
+    /**
+     * Returns the table for the given grid size and ship size. The table is built on the first
+     * request and cached for the lifetime of the process. Cached tables are returned without
+     * locking, so this can be called on every move from many threads.
+     * @param gridSize Size of the grid
+     * @param shipSize Size of the ship
+     * @return The placement table
+     */
+    public static PlacementTable get(int gridSize, int shipSize) {
+        if (shipSize < 1 || shipSize > gridSize)
+            throw new IllegalArgumentException("The ship does not fit on the grid.");
+
+        int key = gridSize * 64 + shipSize;
+        PlacementTable[] cached = tables;
+        if (key < cached.length && cached[key] != null)
+            return cached[key];
+        return build(key, gridSize, shipSize);
+    }
+
+    /*
+    Builds a missing table. The cache is never modified in place but replaced by a copy, so
+    readers always see completely initialized tables.
+     */
+    private static synchronized PlacementTable build(int key, int gridSize, int shipSize) {
+        PlacementTable[] cached = tables;
+        if (key < cached.length && cached[key] != null)
+            return cached[key];
+
+        PlacementTable table = new PlacementTable(gridSize, shipSize);
+        cached = Arrays.copyOf(cached, Math.max(cached.length, key + 1));
+        cached[key] = table;
+        tables = cached;
+        return table;
+    }
+
+    private PlacementTable(int gridSize, int shipSize) {
+        this.gridSize = gridSize;
+        this.shipSize = shipSize;
+        this.words = Bitboard.wordCount(gridSize * gridSize);
+
+        int perLine = gridSize - shipSize + 1;
+        this.positionCount = 2 * perLine * gridSize;
+        this.masks = new long[this.positionCount * this.words];
+        this.haloMasks = new long[this.positionCount * this.words];
+        this.haloCells = new int[this.positionCount][];
+        this.cols = new int[this.positionCount];
+        this.rows = new int[this.positionCount];
+        this.horizontal = new boolean[this.positionCount];
+
+        int index = 0;
+        for (int row = 0; row < gridSize; row++) {
+            for (int col = 0; col < perLine; col++) {
+                addPosition(index++, col, row, true);
+            }
+        }
+        for (int row = 0; row < perLine; row++) {
+            for (int col = 0; col < gridSize; col++) {
+                addPosition(index++, col, row, false);
+            }
+        }
+
+        int[] coverCount = new int[gridSize * gridSize];
+        for (int position = 0; position < this.positionCount; position++) {
+            for (int i = 0; i < shipSize; i++) coverCount[getCell(position, i)]++;
+        }
+        this.positionsByCell = new int[gridSize * gridSize][];
+        for (int cell = 0; cell < coverCount.length; cell++) {
+            this.positionsByCell[cell] = new int[coverCount[cell]];
+            coverCount[cell] = 0;
+        }
+        for (int position = 0; position < this.positionCount; position++) {
+            for (int i = 0; i < shipSize; i++) {
+                int cell = getCell(position, i);
+                this.positionsByCell[cell][coverCount[cell]++] = position;
+            }
+        }
+    }
+
+    private void addPosition(int position, int col, int row, boolean horizontal) {
+        this.cols[position] = col;
+        this.rows[position] = row;
+        this.horizontal[position] = horizontal;
+        for (int i = 0; i < this.shipSize; i++) {
+            int cell = getCell(position, i);
+            this.masks[position * this.words + (cell >>> 6)] |= 1L << cell;
+        }
+
+        int minCol = Math.max(col - 1, 0);
+        int minRow = Math.max(row - 1, 0);
+        int maxCol = Math.min(horizontal ? col + this.shipSize : col + 1, this.gridSize - 1);
+        int maxRow = Math.min(horizontal ? row + 1 : row + this.shipSize, this.gridSize - 1);
+        this.haloCells[position] = new int[(maxCol - minCol + 1) * (maxRow - minRow + 1)];
+        int i = 0;
+        for (int haloRow = minRow; haloRow <= maxRow; haloRow++) {
+            for (int haloCol = minCol; haloCol <= maxCol; haloCol++) {
+                int cell = haloRow * this.gridSize + haloCol;
+                this.haloCells[position][i++] = cell;
+                this.haloMasks[position * this.words + (cell >>> 6)] |= 1L << cell;
+            }
+        }
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    public int getShipSize() {
+        return shipSize;
+    }
+
+    public int getPositionCount() {
+        return positionCount;
+    }
+
+    public int getCol(int position) {
+        return cols[position];
+    }
+
+    public int getRow(int position) {
+        return rows[position];
+    }
+
+    public boolean isHorizontal(int position) {
+        return horizontal[position];
+    }
+
+    /**
+     * Returns the position of the ship with the given upper left cell and orientation.
+     */
+    public int getPosition(int col, int row, boolean horizontal) {
+        int perLine = this.gridSize - this.shipSize + 1;
+        if (horizontal)
+            return row * perLine + col;
+        return perLine * this.gridSize + row * this.gridSize + col;
+    }
+
+    /**
+     * Returns the index of the i-th cell of the ship at the given position, counted from the upper
+     * left cell.
+     */
+    public int getCell(int position, int i) {
+        return this.horizontal[position] ?
+                this.rows[position] * this.gridSize + this.cols[position] + i :
+                (this.rows[position] + i) * this.gridSize + this.cols[position];
+    }
+
+    /**
+     * Returns the given word of the bitboard of the given position.
+     */
+    public long getMaskWord(int position, int word) {
+        return masks[position * words + word];
+    }
+
+    /**
+     * Returns true if the ship at the given position covers at least one cell of the board.
+     */
+    public boolean intersects(int position, long[] board) {
+        int offset = position * this.words;
+        for (int w = 0; w < this.words; w++) {
+            if ((this.masks[offset + w] & board[w]) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the ship at the given position covers every cell of the board.
+     */
+    public boolean coversAll(int position, long[] board) {
+        int offset = position * this.words;
+        for (int w = 0; w < this.words; w++) {
+            if ((board[w] & ~this.masks[offset + w]) != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if every cell of the ship at the given position is set on the board.
+     */
+    public boolean isCoveredBy(int position, long[] board) {
+        int offset = position * this.words;
+        for (int w = 0; w < this.words; w++) {
+            if ((this.masks[offset + w] & ~board[w]) != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Marks the cells of the ship at the given position on the board.
+     */
+    public void addTo(int position, long[] board) {
+        int offset = position * this.words;
+        for (int w = 0; w < this.words; w++) board[w] |= this.masks[offset + w];
+    }
+
+    /**
+     * Unmarks the cells of the ship at the given position on the board.
+     */
+    public void removeFrom(int position, long[] board) {
+        int offset = position * this.words;
+        for (int w = 0; w < this.words; w++) board[w] &= ~this.masks[offset + w];
+    }
+
+    /**
+     * Returns true if the halo of the ship at the given position covers at least one cell of the
+     * board.
+     */
+    public boolean haloIntersects(int position, long[] board) {
+        int offset = position * this.words;
+        for (int w = 0; w < this.words; w++) {
+            if ((this.haloMasks[offset + w] & board[w]) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Marks the cells of the halo of the ship at the given position on the board.
+     */
+    public void addHaloTo(int position, long[] board) {
+        int offset = position * this.words;
+        for (int w = 0; w < this.words; w++) board[w] |= this.haloMasks[offset + w];
+    }
+
+    /**
+     * Returns the amount of cells in the halo of the given position.
+     */
+    public int getHaloSize(int position) {
+        return haloCells[position].length;
+    }
+
+    /**
+     * Returns the index of the i-th cell in the halo of the given position.
+     */
+    public int getHaloCell(int position, int i) {
+        return haloCells[position][i];
+    }
+
+    /**
+     * Returns the amount of positions covering the given cell.
+     */
+    public int getPositionCountForCell(int cell) {
+        return positionsByCell[cell].length;
+    }
+
+    /**
+     * Returns the i-th position covering the given cell.
+     */
+    public int getPositionForCell(int cell, int i) {
+        return positionsByCell[cell][i];
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * ProbabilityDensity.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import java.util.Random;
+
+/**
+ * This class scores the cells of a grid by how many legal positions of the remaining ships cover
+ * them. A position is legal if it does not cover a cell known to be water. Positions covering
+ * cells which have been hit, but whose ship has not been destroyed yet, are weighted by
+ * HIT_WEIGHT per hit, such that the AI finishes a ship once it has found it. The AI shoots at the
+ * cell with the highest score.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public final class ProbabilityDensity {
+
+    // Factor by which a position covering a known hit is preferred
+    public final static int HIT_WEIGHT = 50;
+
+    private ProbabilityDensity(){} // this class should not be initialized
+
+    /**
+     * Computes the score of every cell.
+     * @param gridSize Size of the grid
+     * @param remainingShips Amount of not destroyed ships of the sizes 2, 3, 4 and 5
+     * @param water Bitboard of the cells which cannot contain a remaining ship
+     * @param hits Bitboard of the hit cells whose ship has not been destroyed yet
+     * @param scores Array of length gridSize * gridSize, which is overwritten with the scores
+     */
+    public static void computeScores(int gridSize, int[] remainingShips, long[] water, long[] hits,
+                                     int[] scores) {
+        for (int i = 0; i < scores.length; i++) scores[i] = 0;
+
+        for (int i = 0; i < remainingShips.length; i++) {
+            int size = i + 2;
+            if (remainingShips[i] == 0 || size > gridSize)
+                continue;
+            PlacementTable table = PlacementTable.get(gridSize, size);
+            for (int position = 0; position < table.getPositionCount(); position++) {
+                if (table.intersects(position, water))
+                    continue;
+
+                int coveredHits = 0;
+                for (int w = 0; w < hits.length; w++) {
+                    coveredHits += Long.bitCount(table.getMaskWord(position, w) & hits[w]);
+                }
+                int weight = remainingShips[i] * (coveredHits == 0 ? 1 : HIT_WEIGHT * coveredHits);
+                for (int j = 0; j < size; j++) {
+                    scores[table.getCell(position, j)] += weight;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the cell with the highest score, which is not excluded. Ties are broken randomly.
+     * @param scores Scores of the cells
+     * @param excluded Bitboard of the cells which may not be chosen
+     * @param ranGen Random number generator used to break ties
+     * @return Index of the chosen cell or -1 if every cell is excluded
+     */
+    public static int chooseCell(int[] scores, long[] excluded, Random ranGen) {
+        int best = -1;
+        int ties = 0;
+        for (int cell = 0; cell < scores.length; cell++) {
+            if (Bitboard.get(excluded, cell))
+                continue;
+            if (best == -1 || scores[cell] > scores[best]) {
+                best = cell;
+                ties = 1;
+            } else if (scores[cell] == scores[best]) {
+                // Choose each of the equally good cells with the same probability
+                ties++;
+                if (ranGen.nextInt(ties) == 0)
+                    best = cell;
+            }
+        }
+        return best;
+    }
+}
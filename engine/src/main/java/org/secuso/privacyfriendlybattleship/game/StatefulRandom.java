@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * StatefulRandom.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import java.util.Random;
+
+/**
+ * This class is a random number generator whose state can be read and restored, such that the AI
+ * continues with the same sequence of numbers after it has been restored. It uses the linear
+ * congruential generator of java.util.Random, so it yields the same numbers as Random for equal
+ * seeds. nextGaussian() is not covered by the state and should not be used.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public final class StatefulRandom extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long state;
+
+    public StatefulRandom() {
+        super();
+    }
+
+    public StatefulRandom(long seed) {
+        super(seed);
+    }
+
+    /**
+     * Sets the seed like java.util.Random does. Called by the constructors of Random as well.
+     */
+    @Override
+    public synchronized void setSeed(long seed) {
+        this.state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected synchronized int next(int bits) {
+        this.state = (this.state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (this.state >>> (48 - bits));
+    }
+
+    /**
+     * Returns the current state of the generator, which can be passed to setState() later.
+     */
+    public synchronized long getState() {
+        return this.state;
+    }
+
+    public synchronized void setState(long state) {
+        this.state = state & MASK;
+    }
+}
@@ -0,0 +1,370 @@
+/**
+ * Copyright (c) 2017, Alexander Müller, Ali Kalsen and affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Tournament.java is part of Privacy Friendly Battleship.
+ *
+ * Privacy Friendly Battleship is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Privacy Friendly Battleship is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Privacy Friendly Battleship. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.secuso.privacyfriendlybattleship.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This class runs games of AI players without any Activity, in order to measure the strength and
+ * the cost of the AI. A player is a difficulty level together with a compute budget. In every
+ * round all players attack the same fleet, which is drawn by a LayoutSource, by default a
+ * BulkFleetGenerator. A player wins a round against another player if it needs fewer shots to
+ * destroy the fleet, equal shots are a draw. Attacking the same fleets makes the comparison fair
+ * even for few rounds.
+ *
+ * The rounds are split into chunks of CHUNK_SIZE rounds, which are played in parallel on one
+ * thread per processor. The tournament does not use the WorkerPool, since the master AI waits
+ * for its own tasks on that pool.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class Tournament {
+
+    // Number of rounds played by one task
+    public final static int CHUNK_SIZE = 16;
+
+    // Rating of an average player
+    public final static double BASE_RATING = 1500;
+
+    /**
+     * Source of the fleets attacked by the players.
+     */
+    public interface LayoutSource {
+        /**
+         * Writes count layouts as records into the buffer, in the format of BulkFleetGenerator.
+         * The layouts may only depend on the seed.
+         * @return True if all layouts have been generated, false if the fleet does not fit
+         */
+        boolean generateRecords(int[] buffer, int count, long seed);
+    }
+
+    private final int gridSize;
+    private final int[] shipCount;
+    private final boolean shipsMayTouch;
+    private final int shipsPerLayout;
+    private final List<String> names = new ArrayList<>();
+    private final List<GameMode> modes = new ArrayList<>();
+    private final List<AIBudget> budgets = new ArrayList<>();
+    private LayoutSource layoutSource;
+
+    /**
+     * Creates a tournament on the given fleet without players.
+     * @param gridSize Size of the grid
+     * @param shipCount Amount of ships of the sizes 2, 3, 4 and 5
+     * @param shipsMayTouch False if the ships need to have at least one cell in between
+     */
+    public Tournament(int gridSize, int[] shipCount, boolean shipsMayTouch) {
+        this.gridSize = gridSize;
+        this.shipCount = shipCount.clone();
+        this.shipsMayTouch = shipsMayTouch;
+
+        final BulkFleetGenerator generator = new BulkFleetGenerator(gridSize, shipCount, shipsMayTouch);
+        this.shipsPerLayout = generator.getShipsPerLayout();
+        this.layoutSource = new LayoutSource() {
+            @Override
+            public boolean generateRecords(int[] buffer, int count, long seed) {
+                return generator.generateRecords(buffer, count, seed);
+            }
+        };
+    }
+
+    /**
+     * Adds a player.
+     * @param name Name of the player in the report
+     * @param mode Difficulty level of the AI
+     * @param budget Compute budget of the AI, see AIBudget
+     * @return Index of the player
+     */
+    public int addPlayer(String name, GameMode mode, AIBudget budget) {
+        if (!mode.isVsAI())
+            throw new IllegalArgumentException("Only AI players can take part in a tournament.");
+        this.names.add(name);
+        this.modes.add(mode);
+        this.budgets.add(budget);
+        return this.names.size() - 1;
+    }
+
+    /**
+     * Replaces the source of the fleets attacked by the players.
+     */
+    public void setLayoutSource(LayoutSource layoutSource) {
+        this.layoutSource = layoutSource;
+    }
+
+    /**
+     * Plays the given number of rounds. Every player plays one game per round.
+     * @param rounds Number of rounds
+     * @param seed Seed of the layouts and the games. The results only depend on the seed if the
+     *             budgets have no time limit, see AIBudget.withoutTimeLimit().
+     * @return The results or null if the fleet does not fit on the grid
+     */
+    public Result run(int rounds, final long seed) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Tournament");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        long start = System.nanoTime();
+        List<Future<int[][]>> results = new ArrayList<>();
+        for (int chunk = 0; chunk * CHUNK_SIZE < rounds; chunk++) {
+            final int chunkRounds = Math.min(CHUNK_SIZE, rounds - chunk * CHUNK_SIZE);
+            final long chunkSeed = seed ^ (chunk * 0x9E3779B97F4A7C15L);
+            results.add(executor.submit(new Callable<int[][]>() {
+                @Override
+                public int[][] call() {
+                    return playChunk(chunkRounds, chunkSeed);
+                }
+            }));
+        }
+
+        Result result = new Result(this.names, this.gridSize * this.gridSize);
+        try {
+            for (Future<int[][]> chunk : results) {
+                int[][] shots = chunk.get();
+                if (shots == null)
+                    return null;
+                for (int[] roundShots : shots) result.addRound(roundShots);
+            }
+        } catch (InterruptedException e) {
+            for (Future<int[][]> chunk : results) chunk.cancel(true);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        result.finish(System.nanoTime() - start);
+        return result;
+    }
+
+    /*
+     Returns the shots of every player in every round or null if the fleet does not fit.
+      */
+    private int[][] playChunk(int rounds, long seed) {
+        int[] records = new int[rounds * this.shipsPerLayout];
+        if (!this.layoutSource.generateRecords(records, rounds, seed))
+            return null;
+
+        int[][] shots = new int[rounds][this.names.size()];
+        for (int round = 0; round < rounds; round++) {
+            for (int player = 0; player < this.names.size(); player++) {
+                // All players of a round draw the same random numbers
+                long gameSeed = seed + (round + 1) * 0x9E3779B97F4A7C15L;
+                shots[round][player] = playGame(player, records, round * this.shipsPerLayout, gameSeed);
+            }
+        }
+        return shots;
+    }
+
+    /*
+     Lets the player attack the layout starting at the given offset. Returns the number of shots.
+      */
+    private int playGame(int player, int[] records, int offset, long seed) {
+        GameController game = new GameController(this.modes.get(player), this.gridSize, this.shipCount);
+        game.setSeed(seed);
+        game.setShipsMayTouch(this.shipsMayTouch);
+        placeLayout(game.getGridFirstPlayer().getShipSet(), records, offset);
+        GameAI ai = game.getOpponentAI();
+        ai.setBudget(this.budgets.get(player));
+
+        int shots = 0;
+        while (!ai.isAIWinner()) {
+            game.switchPlayers();
+            ai.makeMove();
+            shots++;
+        }
+        return shots;
+    }
+
+    private void placeLayout(GameShipSet shipSet, int[] records, int offset) {
+        int shipIndex = 0;
+        for (int size = this.shipCount.length + 1; size >= 2; size--) {
+            for (int j = 0; j < this.shipCount[size - 2]; j++) {
+                int record = records[offset + shipIndex++];
+                int startCell = record / 2;
+                boolean horizontal = (record & 1) == 1;
+                shipSet.placeShip(startCell % this.gridSize, startCell / this.gridSize, size,
+                        horizontal ? Direction.WEST : Direction.NORTH);
+            }
+        }
+    }
+
+    /**
+     * Results of a tournament.
+     */
+    public static class Result {
+
+        private final List<String> names;
+        private final int[][] shotCounts;//number of games of each player won with the given number of shots
+        private final int[][] halfPoints;//twice the score of each player against each other player
+        private int rounds;
+        private long nanos;
+        private double[] ratings;
+
+        private Result(List<String> names, int cellCount) {
+            this.names = new ArrayList<>(names);
+            this.shotCounts = new int[names.size()][cellCount + 1];
+            this.halfPoints = new int[names.size()][names.size()];
+        }
+
+        private void addRound(int[] shots) {
+            for (int i = 0; i < shots.length; i++) {
+                this.shotCounts[i][shots[i]]++;
+                for (int j = 0; j < shots.length; j++) {
+                    if (i == j)
+                        continue;
+                    this.halfPoints[i][j] += shots[i] < shots[j] ? 2 : (shots[i] == shots[j] ? 1 : 0);
+                }
+            }
+            this.rounds++;
+        }
+
+        private void finish(long nanos) {
+            this.nanos = nanos;
+            this.ratings = fitRatings(this.halfPoints, this.rounds);
+        }
+
+        public int getPlayerCount() {
+            return names.size();
+        }
+
+        public int getRounds() {
+            return rounds;
+        }
+
+        /**
+         * Returns the number of games played per second, counting one game per player and round.
+         */
+        public double getGamesPerSecond() {
+            return this.rounds * this.names.size() / (this.nanos / 1e9);
+        }
+
+        /**
+         * Returns the number of games the player has needed the given number of shots for.
+         */
+        public int getShotCount(int player, int shots) {
+            return shotCounts[player][shots];
+        }
+
+        public double getMeanShots(int player) {
+            long total = 0;
+            for (int shots = 0; shots < this.shotCounts[player].length; shots++) {
+                total += (long) shots * this.shotCounts[player][shots];
+            }
+            return (double) total / this.rounds;
+        }
+
+        /**
+         * Returns the smallest number of shots the player has needed in at least the given
+         * fraction of its games.
+         */
+        public int getShotsPercentile(int player, double fraction) {
+            int games = 0;
+            for (int shots = 0; shots < this.shotCounts[player].length; shots++) {
+                games += this.shotCounts[player][shots];
+                if (games >= fraction * this.rounds)
+                    return shots;
+            }
+            return this.shotCounts[player].length - 1;
+        }
+
+        /**
+         * Returns the score of the player against the other player, i.e. wins plus half the draws.
+         */
+        public double getScore(int player, int opponent) {
+            return halfPoints[player][opponent] / 2.0;
+        }
+
+        /**
+         * Returns the Elo rating of the player, see fitRatings().
+         */
+        public double getRating(int player) {
+            return ratings[player];
+        }
+
+        /**
+         * Returns a table of the games per second and the results of every player.
+         */
+        public String report() {
+            StringBuilder report = new StringBuilder();
+            report.append(String.format(Locale.US, "%d rounds, %.1f games/s%n", this.rounds, getGamesPerSecond()));
+            report.append(String.format(Locale.US, "%-16s %7s %6s %4s %4s %4s%n", "player", "rating", "mean", "p10", "p50", "p90"));
+            for (int i = 0; i < this.names.size(); i++) {
+                report.append(String.format(Locale.US, "%-16s %7.0f %6.2f %4d %4d %4d%n", this.names.get(i),
+                        getRating(i), getMeanShots(i), getShotsPercentile(i, 0.1),
+                        getShotsPercentile(i, 0.5), getShotsPercentile(i, 0.9)));
+            }
+            return report.toString();
+        }
+
+        /*
+         Fits Elo ratings to the scores by gradient ascent on their likelihood, such that the
+         expected score of every player equals its actual score. Every pair of players gets one
+         additional draw, such that the ratings stay finite if a player wins every game. The mean
+         rating is BASE_RATING.
+          */
+        private static double[] fitRatings(int[][] halfPoints, int rounds) {
+            int players = halfPoints.length;
+            double[] ratings = new double[players];
+            for (int i = 0; i < players; i++) ratings[i] = BASE_RATING;
+            if (players < 2)
+                return ratings;
+
+            for (int iteration = 0; iteration < 1000; iteration++) {
+                double change = 0;
+                for (int i = 0; i < players; i++) {
+                    double difference = 0;
+                    for (int j = 0; j < players; j++) {
+                        if (i == j)
+                            continue;
+                        double expected = 1 / (1 + Math.pow(10, (ratings[j] - ratings[i]) / 400));
+                        difference += (halfPoints[i][j] + 1) / 2.0 - (rounds + 1) * expected;
+                    }
+                    double step = 400 * difference / ((rounds + 1) * (players - 1));
+                    ratings[i] += step;
+                    change = Math.max(change, Math.abs(step));
+                }
+                if (change < 0.01)
+                    break;
+            }
+
+            double mean = 0;
+            for (double rating : ratings) mean += rating / players;
+            for (int i = 0; i < players; i++) ratings[i] += BASE_RATING - mean;
+            return ratings;
+        }
+    }
+}
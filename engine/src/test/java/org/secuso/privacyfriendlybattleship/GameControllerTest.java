@@ -2,6 +2,7 @@ package org.secuso.privacyfriendlybattleship;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.secuso.privacyfriendlybattleship.game.Bitboard;
 import org.secuso.privacyfriendlybattleship.game.Direction;
 import org.secuso.privacyfriendlybattleship.game.GameCell;
 import org.secuso.privacyfriendlybattleship.game.GameController;
@@ -9,6 +10,7 @@ import org.secuso.privacyfriendlybattleship.game.GameGrid;
 import org.secuso.privacyfriendlybattleship.game.GameMode;
 import org.secuso.privacyfriendlybattleship.game.GameShip;
 
+import java.util.Random;
 import java.util.Timer;
 
 import static org.junit.Assert.assertEquals;
@@ -19,6 +21,7 @@ import static org.junit.Assert.assertTrue;
  */
 
 public class GameControllerTest {
+
     private GameController controller;
     private GameController controllerSmall;
     private Timer timer;
@@ -59,6 +62,20 @@ public class GameControllerTest {
         assertTrue(controller.getGridSecondPlayer().getCell(1,1).equals(cell));
     }
 
+    @Test
+    public void bitboardTest() {
+        GameGrid grid = controller.getGridFirstPlayer();
+        assertEquals(Bitboard.popCount(grid.getShipLayer()), 17);
+        assertEquals(Bitboard.popCount(grid.getHitLayer()), 0);
+        assertEquals(Bitboard.get(grid.getShipLayer(), grid.cellIndex(2, 4)), true);
+        assertEquals(Bitboard.get(grid.getShipLayer(), grid.cellIndex(4, 2)), false);
+
+        controller.switchPlayers();
+        controller.makeMove(true, 2, 4);
+        assertEquals(grid.getCell(2, 4).isHit(), true);
+        assertEquals(Bitboard.popCount(grid.getHitLayer()), 1);
+    }
+
     @Test
     public void testFindShipContainingCell(){
         GameGrid grid;
@@ -73,6 +90,20 @@ public class GameControllerTest {
         assertEquals(ship.getSize(), 3);
     }
 
+    @Test
+    public void testFindShipAfterMove(){
+        GameGrid grid = controllerSmall.getGridSecondPlayer();
+        GameShip ship = grid.getShipSet().findShipContainingCell(grid.getCell(1, 1));
+        ship.moveShip(Direction.EAST);
+        assertEquals(grid.getShipSet().findShipContainingCell(grid.getCell(1, 1)), null);
+        assertEquals(grid.getShipSet().findShipContainingCell(grid.getCell(2, 3)), ship);
+
+        ship.turnShipRight();
+        for (GameCell cell : ship.getShipsCells()) {
+            assertEquals(grid.getShipSet().findShipContainingCell(cell), ship);
+        }
+    }
+
     @Test (expected = IllegalArgumentException.class)
     public void placeShipTest() {
         //test grid of controller
@@ -113,12 +144,72 @@ public class GameControllerTest {
         assertEquals(controllerSmall.getGridSecondPlayer().getShipSet().placementLegit(), true);
     }
 
+    @Test
+    public void placementLegitAfterMoveTest() {
+        GameGrid grid = controller.getGridSecondPlayer();
+        grid.getShipSet().placeShip(3, 3, 3, Direction.WEST);
+        grid.getShipSet().placeShip(1, 3, 2, Direction.WEST);
+        GameShip ship = grid.getShipSet().findShipContainingCell(grid.getCell(1, 3));
+        assertEquals(grid.getShipSet().placementLegit(), true);
+
+        ship.moveShip(Direction.EAST);
+        assertEquals(grid.getShipSet().shipsOnCell(grid.getCell(3, 3)), 2);
+        assertEquals(grid.getShipSet().placementLegit(), false);
+
+        ship.moveShip(Direction.NORTH);
+        assertEquals(grid.getShipSet().shipsOnCell(grid.getCell(3, 3)), 1);
+        assertEquals(grid.getShipSet().placementLegit(), true);
+    }
+
+    @Test
+    public void shipsMayNotTouchTest() {
+        GameController noTouchController = new GameController(10, GameMode.VS_AI_EASY);
+        noTouchController.setShipsMayTouch(false);
+        GameGrid grid = noTouchController.getGridFirstPlayer();
+
+        grid.getShipSet().placeShip(6, 4, 5, Direction.EAST);
+        grid.getShipSet().placeShip(2, 5, 3, Direction.NORTH);
+        assertEquals(grid.getShipSet().placementLegit(), false);
+        assertEquals(grid.getShipSet().touchesOtherShip(grid.getCell(2, 5)), true);
+
+        GameShip ship = grid.getShipSet().findShipContainingCell(grid.getCell(2, 5));
+        ship.moveShip(Direction.SOUTH);
+        assertEquals(grid.getShipSet().placementLegit(), true);
+        assertEquals(grid.getShipSet().touchesOtherShip(grid.getCell(2, 6)), false);
+
+        noTouchController.setShipsMayTouch(true);
+        ship.moveShip(Direction.NORTH);
+        assertEquals(grid.getShipSet().placementLegit(), true);
+    }
+
+    @Test
+    public void placeShipsRandomlyWithoutTouchingTest() {
+        GameController noTouchController = new GameController(10, GameMode.VS_AI_EASY);
+        noTouchController.setShipsMayTouch(false);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(noTouchController.placeAllShips(), true);
+            assertEquals(noTouchController.getGridFirstPlayer().getShipSet().placementLegit(), true);
+            assertEquals(noTouchController.getGridSecondPlayer().getShipSet().placementLegit(), true);
+        }
+    }
+
     @Test
     public void placeShipsRandomlyTest() {
-        controller.getGridSecondPlayer().getShipSet().placeShipsRandomly();
+        controller.getGridSecondPlayer().getShipSet().placeShipsRandomly(new Random());
         assertEquals(controller.getGridSecondPlayer().getShipSet().placementLegit(), true);
     }
 
+    @Test
+    public void placeDenseShipsRandomlyTest() {
+        GameController denseController = new GameController(GameMode.CUSTOM, 5, new int[] {0, 0, 0, 5});
+        assertEquals(denseController.placeAllShips(), true);
+        assertEquals(denseController.getGridFirstPlayer().getShipSet().allShipsPlaced(), true);
+        assertEquals(denseController.getGridFirstPlayer().getShipSet().placementLegit(), true);
+
+        GameController infeasibleController = new GameController(GameMode.CUSTOM, 5, new int[] {0, 0, 0, 6});
+        assertEquals(infeasibleController.placeAllShips(), false);
+    }
+
     @Test
     public void makeMoveTest() {
         /*
@@ -201,4 +292,19 @@ public class GameControllerTest {
         assertEquals(controllerSmall.getGridFirstPlayer().getShipSet().allShipsDestroyed(), false);
         assertEquals(controllerSmall.getGridSecondPlayer().getShipSet().allShipsDestroyed(), true);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shipDestroyedTest() {
+        GameGrid grid = controllerSmall.getGridSecondPlayer();
+        GameShip ship = grid.getShipSet().findShipContainingCell(grid.getCell(1, 1));
+
+        controllerSmall.makeMove(false, 1, 1);
+        controllerSmall.makeMove(false, 1, 2);
+        assertEquals(ship.isDestroyed(), false);
+        assertEquals(grid.getShipSet().allShipsDestroyed(), false);
+
+        controllerSmall.makeMove(false, 1, 3);
+        assertEquals(ship.isDestroyed(), true);
+        assertEquals(grid.getShipSet().allShipsDestroyed(), true);
+    }
+}
@@ -0,0 +1,52 @@
+package org.secuso.privacyfriendlybattleship.game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of AIBudget.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class AIBudgetTest {
+
+    @Test
+    public void aiBudgetTest() {
+        // The default strength uses the default budget for sampling
+        AIBudget budget = AIBudget.forStrength(AIBudget.DEFAULT_STRENGTH);
+        assertEquals(budget.getSamples(), MonteCarloTargeting.DEFAULT_SAMPLES);
+        assertEquals(budget.getTimeBudget(), MonteCarloTargeting.DEFAULT_TIME_BUDGET);
+
+        // The budget grows with the strength
+        AIBudget previous = AIBudget.forStrength(0);
+        for (int strength = 1; strength <= AIBudget.MAX_STRENGTH; strength++) {
+            budget = AIBudget.forStrength(strength);
+            assertTrue(budget.getSamples() >= previous.getSamples());
+            assertTrue(budget.getTimeBudget() >= previous.getTimeBudget());
+            assertTrue(budget.getEndgameCutoff() >= previous.getEndgameCutoff());
+            assertTrue(budget.getBookDepth() >= previous.getBookDepth());
+            previous = budget;
+        }
+        assertEquals(AIBudget.forStrength(0).getBookDepth(), 0);
+        assertEquals(previous.getBookDepth(), OpeningBookBuilder.DEFAULT_DEPTH);
+
+        // The weakest AI still finishes its games
+        GameController game = new GameController(10, GameMode.VS_AI_MASTER);
+        assertTrue(game.placeAllShips());
+        game.getOpponentAI().setBudget(AIBudget.forStrength(0));
+        int shots = 0;
+        while (!game.getOpponentAI().isAIWinner()) {
+            game.switchPlayers();
+            game.getOpponentAI().makeMove();
+            assertTrue(++shots <= 100);
+        }
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void aiBudgetStrengthTest() {
+        AIBudget.forStrength(AIBudget.MAX_STRENGTH + 1);
+    }
+}
@@ -0,0 +1,132 @@
+package org.secuso.privacyfriendlybattleship.game;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the memory allocated by moves, the AI and the ship placement.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class AllocationTest {
+
+    // Bytes which may be allocated per operation on the calling thread, see allocationCounter()
+    private static final long MOVE_ALLOCATION_BUDGET = 0;
+    private static final long AI_MOVE_ALLOCATION_BUDGET = 64;
+    private static final long MASTER_MOVE_ALLOCATION_BUDGET = 16 * 1024;
+    private static final long PLACEMENT_ALLOCATION_BUDGET = 2 * 1024;
+
+    // Number of times each measurement is repeated, the least result counts. The first rounds run
+    // before the JIT has compiled the code and may allocate objects which escape analysis removes
+    // later on.
+    private static final int ROUNDS = 5;
+
+    /*
+     Returns the counter of the bytes allocated per thread. Work the master AI hands to the
+     WorkerPool is not counted. The test is skipped if the JVM does not count allocations.
+      */
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+        Assume.assumeTrue(counter.isThreadAllocatedMemorySupported() && counter.isThreadAllocatedMemoryEnabled());
+        return counter;
+    }
+
+    private static long allocatedBytes(com.sun.management.ThreadMXBean counter) {
+        return counter.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /*
+     Returns the average number of bytes allocated per move of the AI over the given number of
+     games on the 10x10 grid, the least over ROUNDS repetitions. Starting the games is not counted.
+     The games are seeded and the AI has no time limit, so every repetition plays the same moves.
+      */
+    private static long allocatedBytesPerAIMove(GameMode mode, int strength, int games) {
+        long least = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            least = Math.min(least, allocatedBytesPerAIMoveOnce(mode, strength, games));
+        }
+        return least;
+    }
+
+    private static long allocatedBytesPerAIMoveOnce(GameMode mode, int strength, int games) {
+        com.sun.management.ThreadMXBean counter = allocationCounter();
+        long bytes = 0;
+        int moves = 0;
+        for (int i = 0; i < games; i++) {
+            GameController game = new GameController(10, mode);
+            game.setSeed(i);
+            assertTrue(game.placeAllShips());
+            GameAI ai = game.getOpponentAI();
+            ai.setBudget(AIBudget.forStrength(strength).withoutTimeLimit());
+            while (!ai.isAIWinner()) {
+                long before = allocatedBytes(counter);
+                game.switchPlayers();
+                ai.makeMove();
+                bytes += allocatedBytes(counter) - before;
+                moves++;
+            }
+        }
+        return bytes / moves;
+    }
+
+    @Test
+    public void moveAllocationTest() {
+        com.sun.management.ThreadMXBean counter = allocationCounter();
+        GameController game = new GameController(10, GameMode.VS_PLAYER);
+        assertTrue(game.placeAllShips());
+        GameShipSet shipSet = game.gridUnderAttack().getShipSet();
+        GameCell[] cells = new GameCell[100];
+        for (int i = 0; i < cells.length; i++) cells[i] = game.gridUnderAttack().getCell(i % 10, i / 10);
+
+        int runs = 10000;
+        long least = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = allocatedBytes(counter);
+            for (int run = 0; run < runs; run++) {
+                GameCell cell = cells[run % cells.length];
+                game.makeMove(false, cell.getCol(), cell.getRow());
+                shipSet.findShipContainingCell(cell);
+                shipSet.allShipsDestroyed();
+                shipSet.placementLegit();
+                cell.setHit(false);
+            }
+            least = Math.min(least, (allocatedBytes(counter) - before) / runs);
+        }
+        assertTrue(least <= MOVE_ALLOCATION_BUDGET);
+    }
+
+    @Test
+    public void aiMoveAllocationTest() {
+        for (GameMode mode : new GameMode[]{GameMode.VS_AI_EASY, GameMode.VS_AI_HARD, GameMode.VS_AI_EXPERT}) {
+            assertTrue(allocatedBytesPerAIMove(mode, AIBudget.DEFAULT_STRENGTH, 10) <= AI_MOVE_ALLOCATION_BUDGET);
+        }
+        assertTrue(allocatedBytesPerAIMove(GameMode.VS_AI_MASTER, 10, 2) <= MASTER_MOVE_ALLOCATION_BUDGET);
+    }
+
+    @Test
+    public void placementAllocationTest() {
+        com.sun.management.ThreadMXBean counter = allocationCounter();
+        GameShipSet shipSet = new GameController(10, GameMode.VS_PLAYER).getGridFirstPlayer().getShipSet();
+        int runs = 2000;
+        long least = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            // Every round places the same fleets
+            Random ranGen = new StatefulRandom(7);
+            long before = allocatedBytes(counter);
+            for (int run = 0; run < runs; run++) {
+                assertTrue(shipSet.placeShipsRandomly(ranGen));
+            }
+            least = Math.min(least, (allocatedBytes(counter) - before) / runs);
+        }
+        assertTrue(least <= PLACEMENT_ALLOCATION_BUDGET);
+    }
+}
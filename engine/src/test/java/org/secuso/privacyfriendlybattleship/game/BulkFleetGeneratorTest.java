@@ -0,0 +1,54 @@
+package org.secuso.privacyfriendlybattleship.game;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of BulkFleetGenerator.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class BulkFleetGeneratorTest {
+
+    @Test
+    public void bulkFleetGeneratorTest() {
+        BulkFleetGenerator generator = new BulkFleetGenerator(10, new int[]{1, 2, 1, 1}, false);
+        int count = 10000;
+        int words = generator.getWordsPerLayout();
+        int ships = generator.getShipsPerLayout();
+        assertEquals(words, 2);
+        assertEquals(ships, 5);
+
+        long[] boards = new long[count * words];
+        long[] parallelBoards = new long[count * words];
+        int[] records = new int[count * ships];
+        assertTrue(generator.generateBoards(boards, count, 7));
+        assertTrue(generator.generateBoardsParallel(parallelBoards, count, 7));
+        assertTrue(generator.generateRecordsParallel(records, count, 7));
+        assertTrue(Arrays.equals(boards, parallelBoards));
+
+        // The records describe the same layouts as the bitboards
+        for (int layout = 0; layout < count; layout++) {
+            long[] board = Bitboard.create(100);
+            for (int i = 0; i < ships; i++) {
+                int record = records[layout * ships + i];
+                int size = i == 0 ? 5 : i == 1 ? 4 : i < 4 ? 3 : 2;
+                PlacementTable table = PlacementTable.get(10, size);
+                int startCell = record / 2;
+                table.addTo(table.getPosition(startCell % 10, startCell / 10, record % 2 == 1), board);
+            }
+            assertEquals(board[0], boards[layout * words]);
+            assertEquals(board[1], boards[layout * words + 1]);
+            assertEquals(Bitboard.popCount(board), 17);
+        }
+
+        assertFalse(new BulkFleetGenerator(4, new int[]{0, 0, 0, 1}, true)
+                .generateBoardsParallel(new long[2], 1, 7));
+    }
+}
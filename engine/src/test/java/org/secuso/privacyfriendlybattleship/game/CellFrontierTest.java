@@ -0,0 +1,51 @@
+package org.secuso.privacyfriendlybattleship.game;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of CellFrontier.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class CellFrontierTest {
+
+    @Test
+    public void cellFrontierTest() {
+        Random ranGen = new Random(5);
+        CellFrontier frontier = new CellFrontier(5);
+        assertEquals(frontier.size(), 25);
+        assertEquals(frontier.size(0), 13);
+        assertEquals(frontier.size(1), 12);
+
+        // Cells of the requested parity are preferred until none of them is left
+        while (frontier.size(1) > 0) {
+            int cell = frontier.pickRandom(1, ranGen);
+            assertEquals(frontier.parity(cell), 1);
+            frontier.remove(cell);
+            assertFalse(frontier.contains(cell));
+        }
+        frontier.remove(1);
+        assertEquals(frontier.size(), 13);
+
+        // Afterwards the remaining cells are picked, each of them with the same probability
+        int[] picks = new int[25];
+        for (int i = 0; i < 13000; i++) picks[frontier.pickRandom(1, ranGen)]++;
+        for (int cell = 0; cell < 25; cell++) {
+            if (frontier.parity(cell) == 1)
+                assertEquals(picks[cell], 0);
+            else
+                assertTrue(picks[cell] > 800 && picks[cell] < 1200);
+        }
+
+        while (frontier.size() > 0) frontier.remove(frontier.pickRandom(ranGen));
+        assertEquals(frontier.pickRandom(ranGen), -1);
+        assertEquals(frontier.pickRandom(0, ranGen), -1);
+    }
+}
@@ -0,0 +1,75 @@
+package org.secuso.privacyfriendlybattleship.game;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of EndgameSolver.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class EndgameSolverTest {
+
+    private static int countPairs(PlacementTable first, PlacementTable second, boolean mayTouch,
+                                  long[] water, long[] hits) {
+        int count = 0;
+        for (int p = 0; p < first.getPositionCount(); p++) {
+            for (int q = 0; q < second.getPositionCount(); q++) {
+                long[] layout = Bitboard.create(25);
+                second.addTo(q, layout);
+                if (first.intersects(p, water) || second.intersects(q, water))
+                    continue;
+                if (mayTouch ? first.intersects(p, layout) : first.haloIntersects(p, layout))
+                    continue;
+                first.addTo(p, layout);
+                if (Bitboard.containsAll(layout, hits)) count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void endgameSolverTest() {
+        long[] water = Bitboard.create(25);
+        long[] hits = Bitboard.create(25);
+        int[] frequencies = new int[25];
+        EndgameSolver solver = new EndgameSolver(5, true);
+
+        // One ship of size 2 on an empty grid
+        assertEquals(solver.computeFrequencies(new int[]{1, 0, 0, 0}, water, hits, 1000, frequencies), 40);
+        assertEquals(frequencies[0], 2);
+        assertEquals(frequencies[12], 4);
+
+        // A hit in the center leaves the four positions covering it
+        Bitboard.set(hits, 12);
+        assertEquals(solver.computeFrequencies(new int[]{1, 0, 0, 0}, water, hits, 1000, frequencies), 4);
+        assertEquals(frequencies[12], 4);
+        assertEquals(frequencies[7], 1);
+        assertEquals(frequencies[0], 0);
+        int cell = solver.chooseCell(new int[]{1, 0, 0, 0}, water, hits, hits, 1000, new Random(3));
+        assertTrue(cell == 7 || cell == 11 || cell == 13 || cell == 17);
+
+        // Two ships are counted like by a brute force enumeration of the pairs of positions
+        Bitboard.set(water, 0);
+        for (boolean mayTouch : new boolean[]{true, false}) {
+            solver = new EndgameSolver(5, mayTouch);
+            int expected = countPairs(PlacementTable.get(5, 3), PlacementTable.get(5, 2), mayTouch, water, hits);
+            assertEquals(solver.computeFrequencies(new int[]{1, 1, 0, 0}, water, hits, 100000, frequencies), expected);
+            assertEquals(frequencies[12], expected);
+
+            // Equal ships are not counted twice
+            expected = countPairs(PlacementTable.get(5, 2), PlacementTable.get(5, 2), mayTouch, water, hits) / 2;
+            assertEquals(solver.computeFrequencies(new int[]{2, 0, 0, 0}, water, hits, 100000, frequencies), expected);
+        }
+
+        // The search gives up on an open 10x10 grid
+        solver = new EndgameSolver(10, true);
+        assertEquals(solver.computeFrequencies(new int[]{1, 2, 1, 1}, Bitboard.create(100),
+                Bitboard.create(100), 1000, new int[100]), -1);
+    }
+}
@@ -0,0 +1,72 @@
+package org.secuso.privacyfriendlybattleship.game;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of FleetFeasibility.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class FleetFeasibilityTest {
+
+    @Test
+    public void fleetFeasibilityTest() {
+        // Ships may touch: dominoes and size 5 ships can fill the whole grid
+        assertTrue(FleetFeasibility.isFeasible(10, new int[]{50, 0, 0, 0}, true));
+        assertTrue(FleetFeasibility.isFeasible(10, new int[]{0, 0, 0, 20}, true));
+        assertFalse(FleetFeasibility.isFeasible(10, new int[]{51, 0, 0, 0}, true));
+        assertFalse(FleetFeasibility.isFeasible(4, new int[]{0, 0, 0, 1}, true));
+
+        // Ships may not touch: the classic fleet fits, on a 5x5 grid only every second row can
+        // hold a size 5 ship
+        assertTrue(FleetFeasibility.isFeasible(10, new int[]{4, 3, 2, 1}, false));
+        assertTrue(FleetFeasibility.isFeasible(5, new int[]{0, 0, 0, 3}, false));
+        assertFalse(FleetFeasibility.isFeasible(5, new int[]{0, 0, 0, 4}, false));
+
+        assertEquals(FleetFeasibility.getCachedResult(5, new int[]{0, 0, 0, 4}, false), Boolean.FALSE);
+        assertEquals(new GameController(10, GameMode.VS_AI_EASY).isShipCountLegit(new int[]{1, 2, 1, 1}), true);
+    }
+
+    @Test
+    public void fleetFeasibilityMatchesPlacerTest() {
+        // The placer searches exhaustively if the time budget is large enough
+        int gridSize = 5;
+        for (int a = 0; a <= 6; a++) {
+            for (int b = 0; b <= 4; b++) {
+                for (int c = 0; c <= 3; c++) {
+                    for (int d = 0; d <= 2; d++) {
+                        int[] shipCount = new int[]{a, b, c, d};
+                        if (2 * a + 3 * b + 4 * c + 5 * d > gridSize * gridSize) continue;
+                        for (boolean mayTouch : new boolean[]{true, false}) {
+                            FleetPlacer placer = new FleetPlacer(gridSize, shipCount, mayTouch, new Random(a + b + c + d));
+                            boolean placed = placer.place(60000);
+                            assertEquals(placer.hasTimedOut(), false);
+                            assertEquals(FleetFeasibility.isFeasible(gridSize, shipCount, mayTouch), placed);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void denseFleetFeasibilityTest() {
+        // Dense fleets without touching ships are decided with a bounded table of failed states,
+        // the tests run with a heap of 256 MB like a typical Android device
+        assertFalse(FleetFeasibility.isFeasible(10, new int[]{6, 4, 3, 2}, false));
+        assertFalse(FleetFeasibility.isFeasible(10, new int[]{8, 6, 4, 2}, false));
+        assertTrue(FleetFeasibility.isFeasible(10, new int[]{5, 4, 3, 2}, false));
+
+        // The ships and their halos fill the extended grid almost completely. The search gives up
+        // after NODE_LIMIT steps instead of running out of memory or time.
+        assertFalse(FleetFeasibility.isFeasible(10, new int[]{4, 4, 4, 2}, false));
+        assertEquals(FleetFeasibility.getCachedResult(10, new int[]{4, 4, 4, 2}, false), Boolean.FALSE);
+    }
+}
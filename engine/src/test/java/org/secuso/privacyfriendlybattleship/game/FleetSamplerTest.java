@@ -0,0 +1,103 @@
+package org.secuso.privacyfriendlybattleship.game;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of FleetSampler.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class FleetSamplerTest {
+
+    @Test
+    public void fleetSamplerUniformTest() {
+        // Two dominoes on a 3x3 grid: every legal layout should be drawn equally often
+        FleetSampler sampler = new FleetSampler(3, new int[]{2, 0, 0, 0}, true, new Random(42));
+        Map<String, Integer> frequencies = new HashMap<>();
+        int samples = 60000;
+        for (int i = 0; i < samples; i++) {
+            assertTrue(sampler.sample());
+            int first = Math.min(sampler.getPosition(0), sampler.getPosition(1));
+            int second = Math.max(sampler.getPosition(0), sampler.getPosition(1));
+            String key = first + "," + second;
+            Integer count = frequencies.get(key);
+            frequencies.put(key, count == null ? 1 : count + 1);
+        }
+        assertTrue(sampler.isExact());
+
+        // 12 positions, 22 of the 66 pairs of positions overlap
+        assertEquals(frequencies.size(), 44);
+        double expected = (double) samples / frequencies.size();
+        for (int count : frequencies.values()) {
+            assertTrue(Math.abs(count - expected) < expected * 0.15);
+        }
+    }
+
+    @Test
+    public void fleetSamplerDenseTest() {
+        // Sixteen size 5 ships are hardly ever drawn without collision, so the sampler has to fall
+        // back to the Markov chain
+        FleetSampler sampler = new FleetSampler(10, new int[]{0, 0, 0, 16}, true, new Random(1));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(sampler.sample());
+            long[] board = Bitboard.create(100);
+            sampler.addLayoutTo(board);
+            assertEquals(Bitboard.popCount(board), 80);
+        }
+        assertFalse(sampler.isExact());
+
+        assertFalse(new FleetSampler(4, new int[]{0, 0, 0, 1}, true, new Random(1)).sample());
+    }
+
+    @Test
+    public void constrainedSamplerTest() {
+        // Water in the upper row and a hit in the center of the grid
+        long[] water = Bitboard.create(100);
+        for (int col = 0; col < 10; col++) Bitboard.set(water, col);
+        long[] hits = Bitboard.create(100);
+        Bitboard.set(hits, 55);
+
+        for (boolean mayTouch : new boolean[]{true, false}) {
+            FleetSampler sampler = new FleetSampler(10, new int[]{1, 2, 1, 1}, mayTouch, new Random(3));
+            sampler.setConstraints(water, hits);
+            sampler.setRejectionLimit(100);
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(sampler.sample());
+                long[] layout = Bitboard.create(100);
+                sampler.addLayoutTo(layout);
+                assertFalse(Bitboard.intersects(layout, water));
+                assertTrue(Bitboard.containsAll(layout, hits));
+            }
+        }
+    }
+
+    @Test
+    public void expiredDeadlineTest() {
+        // Less than a millisecond is left for the search of the starting layout of the Markov
+        // chain, which does not prove that the fleet does not fit
+        final AtomicLong time = new AtomicLong();
+        FleetSampler sampler = new FleetSampler(10, new int[]{3, 2, 1, 0}, false, new Random(2));
+        sampler.setClock(new Clock() {
+            @Override
+            public long nanoTime() {
+                return time.addAndGet(1000);
+            }
+        });
+        sampler.setRejectionLimit(0);
+        sampler.setDeadline(500000);
+        assertFalse(sampler.sample());
+
+        sampler.setDeadline(time.get() + FleetPlacer.DEFAULT_TIME_BUDGET * 1000000L);
+        assertTrue(sampler.sample());
+    }
+}
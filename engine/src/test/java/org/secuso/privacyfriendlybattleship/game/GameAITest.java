@@ -0,0 +1,158 @@
+package org.secuso.privacyfriendlybattleship.game;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of GameAI.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class GameAITest {
+
+    /*
+     Plays a game of the AI with the given seed and returns the number of shots. The master AI has
+     no time limit, so the result only depends on the seed.
+      */
+    private static int playAIGame(GameMode mode, long seed) {
+        GameController game = new GameController(10, mode);
+        game.setSeed(seed);
+        assertTrue(game.placeAllShips());
+        GameAI ai = game.getOpponentAI();
+        ai.setBudget(AIBudget.forStrength(AIBudget.DEFAULT_STRENGTH).withoutTimeLimit());
+        int shots = 0;
+        while (!ai.isAIWinner()) {
+            game.switchPlayers();
+            ai.makeMove();
+            shots++;
+            assertTrue(shots <= 100);
+        }
+        return shots;
+    }
+
+    @Test
+    public void expertAITest() {
+        int games = 30;
+        int shotsHard = 0;
+        int shotsExpert = 0;
+        for (int i = 0; i < games; i++) {
+            // Both AIs attack the same fleets
+            shotsHard += playAIGame(GameMode.VS_AI_HARD, i);
+            shotsExpert += playAIGame(GameMode.VS_AI_EXPERT, i);
+        }
+        assertTrue(shotsExpert < shotsHard);
+    }
+
+    @Test
+    public void masterAITest() {
+        assertTrue(playAIGame(GameMode.VS_AI_MASTER, 1) <= 100);
+    }
+
+    @Test
+    public void asyncAIMoveTest() throws Exception {
+        for (GameMode mode : new GameMode[]{GameMode.VS_AI_EASY, GameMode.VS_AI_HARD,
+                GameMode.VS_AI_EXPERT, GameMode.VS_AI_MASTER}) {
+            GameController game = new GameController(10, mode);
+            assertTrue(game.placeAllShips());
+            game.switchPlayers();
+
+            final AtomicInteger chosen = new AtomicInteger(-1);
+            Future<?> move = game.getOpponentAI().chooseTargetAsync(new GameAI.MoveCallback() {
+                @Override
+                public void onTargetChosen(int cell) {
+                    chosen.set(cell);
+                }
+            });
+            move.get();
+
+            // Choosing the target does not change the game
+            int cell = chosen.get();
+            assertTrue(cell >= 0 && cell < 100);
+            assertTrue(game.getCurrentPlayer());
+            assertFalse(game.gridUnderAttack().isHit(cell % 10, cell / 10));
+
+            // Applying the move attacks the chosen cell and switches the players
+            game.getOpponentAI().applyMove(cell);
+            assertFalse(game.getCurrentPlayer());
+            assertTrue(game.getGridFirstPlayer().isHit(cell % 10, cell / 10));
+        }
+    }
+
+    @Test
+    public void frontierAITest() {
+        // The AI finds every ship, even if it has to shoot at every cell of its frontier
+        assertTrue(playAIGame(GameMode.VS_AI_EASY, 2) <= 100);
+        assertTrue(playAIGame(GameMode.VS_AI_HARD, 2) <= 100);
+    }
+
+    @Test
+    public void hardAITest() {
+        for (boolean mayTouch : new boolean[]{true, false}) {
+            for (int i = 0; i < 50; i++) {
+                GameController game = new GameController(GameMode.VS_AI_HARD, 10, new int[]{0, 0, 0, 1});
+                game.setShipsMayTouch(mayTouch);
+                game.setSeed(i);
+                assertTrue(game.placeAllShips());
+                GameGrid grid = game.getGridFirstPlayer();
+
+                // Once the ship has been found, at most three neighbours and one end of the line miss
+                int shotsAfterFirstHit = -1;
+                while (!game.getOpponentAI().isAIWinner()) {
+                    game.switchPlayers();
+                    game.getOpponentAI().makeMove();
+                    if (shotsAfterFirstHit >= 0 || Bitboard.intersects(grid.getShipLayer(), grid.getHitLayer()))
+                        shotsAfterFirstHit++;
+                }
+                assertTrue(shotsAfterFirstHit <= 8);
+            }
+        }
+
+        int games = 30;
+        int shots = 0;
+        for (int i = 0; i < games; i++) shots += playAIGame(GameMode.VS_AI_HARD, i);
+        assertTrue(shots < 60 * games);
+    }
+
+    /*
+     Plays a game of the AI with the given seed and returns the cells of the ships of the first
+     player followed by the cells attacked by the AI.
+      */
+    private static int[] playSeededGame(GameMode mode, long seed) {
+        GameController game = new GameController(10, mode);
+        game.setSeed(seed);
+        assertEquals(game.getSeed(), seed);
+        assertTrue(game.placeAllShips());
+        GameAI ai = game.getOpponentAI();
+        ai.setBudget(AIBudget.forStrength(0).withoutTimeLimit());
+
+        int[] cells = new int[200];
+        int count = 0;
+        for (int cell = 0; cell < 100; cell++) {
+            if (game.getGridFirstPlayer().getCell(cell % 10, cell / 10).isShip())
+                cells[count++] = cell;
+        }
+        while (!ai.isAIWinner()) {
+            game.switchPlayers();
+            int cell = ai.chooseTarget();
+            ai.applyMove(cell);
+            cells[count++] = cell;
+        }
+        return Arrays.copyOf(cells, count);
+    }
+
+    @Test
+    public void seededGameTest() {
+        for (GameMode mode : new GameMode[]{GameMode.VS_AI_EASY, GameMode.VS_AI_HARD, GameMode.VS_AI_EXPERT, GameMode.VS_AI_MASTER}) {
+            assertTrue(Arrays.equals(playSeededGame(mode, 42), playSeededGame(mode, 42)));
+        }
+        assertFalse(Arrays.equals(playSeededGame(GameMode.VS_AI_HARD, 42), playSeededGame(GameMode.VS_AI_HARD, 43)));
+    }
+}
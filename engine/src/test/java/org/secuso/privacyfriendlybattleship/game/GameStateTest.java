@@ -0,0 +1,117 @@
+package org.secuso.privacyfriendlybattleship.game;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the saved state of a game.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class GameStateTest {
+
+    @Test
+    public void gameStateTest() throws Exception {
+        GameController game = new GameController(10, GameMode.VS_AI_HARD);
+        assertTrue(game.placeAllShips());
+        GameAI ai = game.getOpponentAI();
+        for (int i = 0; i < 20; i++) {
+            game.switchPlayers();
+            ai.makeMove();
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        game.writeState(new DataOutputStream(bytes));
+        GameController restored = new GameController(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(restored.getMode(), GameMode.VS_AI_HARD);
+        assertEquals(restored.getCurrentPlayer(), game.getCurrentPlayer());
+        assertTrue(Arrays.equals(restored.getShipCount(), game.getShipCount()));
+        assertEquals(restored.getSeed(), game.getSeed());
+
+        // The restored AI continues the game with the same moves
+        for (int i = 0; i < 20; i++) {
+            game.switchPlayers();
+            game.getOpponentAI().makeMove();
+            restored.switchPlayers();
+            restored.getOpponentAI().makeMove();
+        }
+        for (int col = 0; col < 10; col++) {
+            for (int row = 0; row < 10; row++) {
+                GameCell cell = game.getGridFirstPlayer().getCell(col, row);
+                GameCell restoredCell = restored.getGridFirstPlayer().getCell(col, row);
+                assertEquals(restoredCell.isShip(), cell.isShip());
+                assertEquals(restoredCell.isHit(), cell.isHit());
+            }
+        }
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void gameStateFormatTest() throws Exception {
+        GameController game = new GameController(10, GameMode.VS_AI_HARD);
+        assertTrue(game.placeAllShips());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        game.writeState(new DataOutputStream(bytes));
+        byte[] state = bytes.toByteArray();
+        // The cells take 2 bits each, the ships two bytes and the unattacked cells of the AI one byte
+        assertTrue(state.length < 300);
+
+        // A state which does not start with the magic number is rejected
+        state[0] = 0;
+        new GameController(new DataInputStream(new ByteArrayInputStream(state)));
+    }
+
+    @Test (expected = IllegalStateException.class)
+    public void gameStateSizeTest() throws Exception {
+        GameController game = new GameController(GameMode.VS_PLAYER, 17, new int[]{1, 0, 0, 0});
+        game.writeState(new DataOutputStream(new ByteArrayOutputStream()));
+    }
+
+    @Test (timeout = 10000)
+    public void gameStateDuringAIMoveTest() throws Exception {
+        final GameController game = new GameController(10, GameMode.VS_AI_MASTER);
+        game.setSeed(9);
+        assertTrue(game.placeAllShips());
+        game.switchPlayers();
+        final GameAI ai = game.getOpponentAI();
+        ai.setBudget(AIBudget.forStrength(0).withoutTimeLimit());
+
+        // A move which has been chosen but not applied yet is chosen again by the restored game
+        int cell = ai.chooseTarget();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        game.writeState(new DataOutputStream(bytes));
+        GameController restored = new GameController(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(restored.getOpponentAI().chooseTarget(), cell);
+
+        // The state is written while a move holds the lock of the AI
+        final CountDownLatch moveStarted = new CountDownLatch(1);
+        final CountDownLatch stateWritten = new CountDownLatch(1);
+        Thread move = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (ai) {
+                    moveStarted.countDown();
+                    try {
+                        stateWritten.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        });
+        move.start();
+        moveStarted.await();
+        game.writeState(new DataOutputStream(new ByteArrayOutputStream()));
+        stateWritten.countDown();
+        move.join();
+    }
+}
@@ -0,0 +1,62 @@
+package org.secuso.privacyfriendlybattleship.game;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of MonteCarloTargeting.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class MonteCarloTargetingTest {
+
+    @Test
+    public void monteCarloTargetingTest() {
+        long[] water = Bitboard.create(100);
+        long[] hits = Bitboard.create(100);
+        Bitboard.set(hits, 55);
+        int[] remainingShips = new int[]{1, 2, 1, 1};
+        MonteCarloTargeting targeting = new MonteCarloTargeting(10, true);
+
+        // The result is reproducible from the seed
+        int[] frequencies = new int[100];
+        int[] otherFrequencies = new int[100];
+        assertEquals(targeting.computeFrequencies(remainingShips, water, hits, 2000, 0, 11, frequencies), 2000);
+        assertEquals(targeting.computeFrequencies(remainingShips, water, hits, 2000, 0, 11, otherFrequencies), 2000);
+        assertTrue(Arrays.equals(frequencies, otherFrequencies));
+        assertEquals(frequencies[55], 2000);
+
+        // The best cell is a neighbour of the hit
+        int cell = targeting.chooseCell(remainingShips, water, hits, hits, 2000, 0, 11);
+        assertTrue(cell == 45 || cell == 54 || cell == 56 || cell == 65);
+    }
+
+    @Test
+    public void timeBudgetTest() {
+        // Dense fleets without touching ships make the sampler fall back to its Markov chain,
+        // whose starting layout has to be found within the time budget as well. Every read of the
+        // clock takes 100 microseconds, every chunk reads it at most twice after the deadline.
+        final long step = 100000;
+        final AtomicLong time = new AtomicLong();
+        MonteCarloTargeting targeting = new MonteCarloTargeting(10, false);
+        targeting.setClock(new Clock() {
+            @Override
+            public long nanoTime() {
+                return time.addAndGet(step);
+            }
+        });
+        long timeBudget = 50;
+        int samples = MonteCarloTargeting.DEFAULT_SAMPLES;
+        int chunks = samples / MonteCarloTargeting.CHUNK_SIZE;
+        int drawn = targeting.computeFrequencies(new int[]{4, 3, 2, 1}, Bitboard.create(100), Bitboard.create(100),
+                samples, timeBudget, 5, new int[100]);
+        assertTrue(drawn < samples);
+        assertTrue(time.get() <= timeBudget * 1000000L + 2 * chunks * step);
+    }
+}
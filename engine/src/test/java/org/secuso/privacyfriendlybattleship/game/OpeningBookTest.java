@@ -0,0 +1,72 @@
+package org.secuso.privacyfriendlybattleship.game;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of OpeningBook and OpeningBookBuilder.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class OpeningBookTest {
+
+    @Test
+    public void openingBookTest() throws Exception {
+        int[] shipCount = new int[]{2, 1, 0, 0};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new OpeningBookBuilder(5, shipCount, true).build(out, 3, 2000, 7);
+        OpeningBook book = new OpeningBook(ByteBuffer.wrap(out.toByteArray()));
+        assertTrue(book.matches(5, shipCount, true));
+        assertFalse(book.matches(5, shipCount, false));
+        assertFalse(book.matches(5, new int[]{1, 1, 0, 0}, true));
+        assertTrue(book.getEntryCount() > 1 && book.getEntryCount() <= 7);
+
+        // The book covers both outcomes of its first move
+        int first = book.lookup(0);
+        assertTrue(first >= 0 && first < 25);
+        int afterMiss = book.lookup(OpeningBook.hashShot(first, false));
+        int afterHit = book.lookup(OpeningBook.hashShot(first, true));
+        assertTrue(afterMiss >= 0 && afterMiss != first);
+        assertTrue(afterHit >= 0 && afterHit != first);
+
+        // The book ends after three shots
+        long hash = OpeningBook.hashShot(first, false) ^ OpeningBook.hashShot(afterMiss, false);
+        int third = book.lookup(hash);
+        assertTrue(third >= 0 && third != first && third != afterMiss);
+        assertEquals(book.lookup(hash ^ OpeningBook.hashShot(third, false)), -1);
+    }
+
+    @Test
+    public void bundledBooksTest() throws Exception {
+        // The assets of the app hold a book for the standard fleet of every grid, see build.gradle
+        File directory = new File(System.getProperty("assetDirectory"), OpeningBook.ASSET_DIRECTORY);
+        assertEquals(directory.list().length, 4);
+        for (int gridSize : new int[]{5, 10}) {
+            int[] shipCount = new GameController(gridSize, GameMode.VS_PLAYER).getShipCount();
+            for (boolean mayTouch : new boolean[]{true, false}) {
+                File file = new File(directory, OpeningBook.getAssetName(gridSize, mayTouch));
+                OpeningBook book;
+                try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+                    book = new OpeningBook(in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, in.length()));
+                }
+                assertTrue(book.matches(gridSize, shipCount, mayTouch));
+
+                // The first move is recorded and so is the move after it has missed
+                int first = book.lookup(0);
+                assertTrue(first >= 0 && first < gridSize * gridSize);
+                int second = book.lookup(OpeningBook.hashShot(first, false));
+                assertTrue(second >= 0 && second < gridSize * gridSize && second != first);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.secuso.privacyfriendlybattleship.game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests of PlacementTable.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class PlacementTableTest {
+
+    @Test
+    public void placementTableTest() {
+        PlacementTable table = PlacementTable.get(10, 5);
+        assertSame(table, PlacementTable.get(10, 5));
+        assertEquals(table.getPositionCount(), 120);
+
+        // A corner cell is covered by one horizontal and one vertical position
+        assertEquals(table.getPositionCountForCell(0), 2);
+        // A center cell is covered by five horizontal and five vertical positions
+        assertEquals(table.getPositionCountForCell(55), 10);
+
+        GameController controller = new GameController(10, GameMode.VS_AI_EASY);
+        GameShipSet shipSet = controller.getGridFirstPlayer().getShipSet();
+        shipSet.placeShip(6, 4, 5, Direction.EAST);
+        shipSet.placeShip(4, 7, 4, Direction.WEST);
+        shipSet.placeShip(1, 1, 3, Direction.WEST);
+        GameGrid grid = controller.getGridFirstPlayer();
+        for (int position = 0; position < table.getPositionCount(); position++) {
+            boolean expected = false;
+            for (int i = 0; i < 5; i++) {
+                int cell = table.getCell(position, i);
+                expected |= grid.getCell(cell % 10, cell / 10).isShip();
+            }
+            assertEquals(table.intersects(position, grid.getShipLayer()), expected);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.secuso.privacyfriendlybattleship.game;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of StatefulRandom.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class StatefulRandomTest {
+
+    @Test
+    public void statefulRandomTest() {
+        // Same numbers as java.util.Random
+        StatefulRandom ranGen = new StatefulRandom(42);
+        Random reference = new Random(42);
+        for (int i = 0; i < 100; i++) assertEquals(ranGen.nextInt(100), reference.nextInt(100));
+        assertEquals(ranGen.nextLong(), reference.nextLong());
+
+        // A restored generator continues the sequence
+        StatefulRandom restored = new StatefulRandom();
+        restored.setState(ranGen.getState());
+        for (int i = 0; i < 100; i++) assertEquals(restored.nextInt(), ranGen.nextInt());
+    }
+}
@@ -0,0 +1,40 @@
+package org.secuso.privacyfriendlybattleship.game;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of Tournament.
+ *
+ * @author Alexander Müller, Ali Kalsen
+ */
+
+public class TournamentTest {
+
+    @Test
+    public void tournamentTest() {
+        Tournament tournament = new Tournament(10, new int[]{1, 2, 1, 1}, true);
+        int easy = tournament.addPlayer("easy", GameMode.VS_AI_EASY, AIBudget.forStrength(0));
+        int hard = tournament.addPlayer("hard", GameMode.VS_AI_HARD, AIBudget.forStrength(0));
+        Tournament.Result result = tournament.run(40, 1);
+
+        assertEquals(40, result.getRounds());
+        int games = 0;
+        for (int shots = 0; shots <= 100; shots++) games += result.getShotCount(easy, shots);
+        assertEquals(40, games);
+        assertEquals(0, result.getShotCount(hard, 16));
+        assertEquals(40, result.getScore(easy, hard) + result.getScore(hard, easy), 1e-9);
+        assertTrue(result.getMeanShots(hard) < result.getMeanShots(easy));
+        assertTrue(result.getRating(hard) > result.getRating(easy));
+        assertEquals(2 * Tournament.BASE_RATING, result.getRating(easy) + result.getRating(hard), 1e-6);
+        assertTrue(result.getShotsPercentile(hard, 0.5) <= result.getShotsPercentile(hard, 0.9));
+        assertTrue(result.getGamesPerSecond() > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tournamentPlayerTest() {
+        new Tournament(5, new int[]{2, 1, 0, 0}, true).addPlayer("human", GameMode.VS_PLAYER, AIBudget.forStrength(0));
+    }
+}